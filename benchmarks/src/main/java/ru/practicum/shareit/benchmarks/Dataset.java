@@ -0,0 +1,100 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Контекст сервера на встроенной H2 с тестовыми данными. У владельца datasetSize вещей, на каждую есть
+// запрос другого пользователя, комментарий и BOOKINGS_PER_ITEM бронирований в прошлом, настоящем и будущем.
+// Размер задаётся параметром JMH: -p datasetSize=10000
+@State(Scope.Benchmark)
+public class Dataset {
+
+    public static final long OWNER_ID = 1L;
+    public static final long BOOKER_ID = 2L;
+    public static final int BOOKINGS_PER_ITEM = 5;
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"100", "1000"})
+    public int datasetSize;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Аргументы командной строки, а не properties(): они перекрывают уровни логирования
+                // из application.properties, трассировка транзакций исказила бы замеры
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--shareit.user-deletion.delay-ms=3600000",
+                        "--shareit.idempotency.cleanup-delay-ms=3600000");
+        fill(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void fill(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+
+        jdbcTemplate.update("insert into users (id, name, email) values (?, 'owner', 'owner@email.com')", OWNER_ID);
+        jdbcTemplate.update("insert into users (id, name, email) values (?, 'booker', 'booker@email.com')", BOOKER_ID);
+
+        for (long id = 1; id <= datasetSize; id++) {
+            requests.add(new Object[]{id, "request " + id, BOOKER_ID, now});
+            items.add(new Object[]{id, "item " + id, "description of item " + id, true, OWNER_ID, id});
+            comments.add(new Object[]{id, "comment " + id, id, BOOKER_ID, now});
+
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = LocalDateTime.now().plusDays(i * 2L - BOOKINGS_PER_ITEM);
+
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), id,
+                        BOOKER_ID, i % 2 == 0 ? "APPROVED" : "WAITING"});
+            }
+        }
+
+        insert(jdbcTemplate, "insert into item_requests (id, description, requester_id, created) values (?, ?, ?, ?)",
+                requests);
+        insert(jdbcTemplate, "insert into items (id, name, description, available, owner_id, request_id) "
+                + "values (?, ?, ?, ?, ?, ?)", items);
+        insert(jdbcTemplate, "insert into bookings (start_date_time, end_date_time, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?)", bookings);
+        insert(jdbcTemplate, "insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                comments);
+        jdbcTemplate.execute("alter table users alter column id restart with 3");
+        jdbcTemplate.execute("alter table item_requests alter column id restart with " + (datasetSize + 1));
+        jdbcTemplate.execute("alter table items alter column id restart with " + (datasetSize + 1));
+        jdbcTemplate.execute("alter table comments alter column id restart with " + (datasetSize + 1));
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(i, Math.min(i + BATCH_SIZE, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Преобразование сущностей в DTO, которое выполняется для каждой строки списков вещей и бронирований
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    // Число комментариев у вещи
+    @Param({"0", "10"})
+    public int comments;
+
+    private Item item;
+    private Booking lastBooking;
+    private Booking nextBooking;
+    private List<CommentDto> commentDtos;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 10, 0);
+        User owner = new User(1L, "owner", "owner@email.com", false);
+        User booker = new User(2L, "booker", "booker@email.com", false);
+        ItemRequest request = new ItemRequest(1L, "request", booker, now.minusDays(3));
+
+        item = Item.builder()
+                .id(1L)
+                .name("item")
+                .description("item description")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build();
+        lastBooking = makeBooking(1L, now.minusDays(2), now.minusDays(1), booker);
+        nextBooking = makeBooking(2L, now.plusDays(1), now.plusDays(2), booker);
+        commentDtos = new ArrayList<>();
+
+        for (long i = 0; i < comments; i++) {
+            commentDtos.add(new CommentDto(i, "comment " + i, booker.getName(), now.minusHours(i)));
+        }
+    }
+
+    @Benchmark
+    public ItemInfoDto toItemInfoDto() {
+        return ItemMapper.toItemInfoDto(item, lastBooking, nextBooking, commentDtos);
+    }
+
+    @Benchmark
+    public BookingInfoDto toBookingInfoDto() {
+        return BookingMapper.toBookingInfoDto(lastBooking);
+    }
+
+    private Booking makeBooking(Long id, LocalDateTime start, LocalDateTime end, User booker) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+}
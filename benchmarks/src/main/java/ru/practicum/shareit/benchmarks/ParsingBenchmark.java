@@ -0,0 +1,44 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.utility.FromSizeRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// Разбор параметров запросов списков: состояние бронирований и страница from/size.
+// Состояния взяты первое и последнее в перечислении и неизвестное, для которого перебираются все значения
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+
+    @State(Scope.Thread)
+    public static class StateParam {
+
+        @Param({"ALL", "CANCELED", "UNSUPPORTED_STATUS"})
+        public String state;
+    }
+
+    @State(Scope.Thread)
+    public static class PageParams {
+
+        @Param({"0", "95"})
+        public int from;
+
+        @Param("10")
+        public int size;
+    }
+
+    @Benchmark
+    public BookingStatus bookingStatusFrom(StateParam params) {
+        return BookingStatus.from(params.state);
+    }
+
+    @Benchmark
+    public long fromSizeRequestOf(PageParams params) {
+        return FromSizeRequest.of(params.from, params.size).getOffset();
+    }
+}
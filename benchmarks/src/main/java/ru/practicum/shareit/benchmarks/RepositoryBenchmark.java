@@ -0,0 +1,67 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Бронирования владельца двумя способами: выборкой сразу в BookingInfoDto, как это делает BookingRepository,
+// и загрузкой сущностей с вещью и последующим маппингом
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final String OWNER_BOOKINGS = "select b from Booking b join fetch b.item i "
+            + "where i.owner.id = :ownerId order by b.id desc";
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private BookingRepository bookingRepository;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp(Dataset dataset) {
+        bookingRepository = dataset.getBean(BookingRepository.class);
+        entityManagerFactory = dataset.getBean(EntityManagerFactory.class);
+        transactionTemplate = new TransactionTemplate(dataset.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @Benchmark
+    public List<BookingInfoDto> ownerBookingsProjection() {
+        Pageable pageable = PageRequest.of(0, pageSize);
+        return transactionTemplate.execute(status -> bookingRepository.findOwnerBookings(Dataset.OWNER_ID, pageable));
+    }
+
+    @Benchmark
+    public List<BookingInfoDto> ownerBookingsEntities() {
+        return transactionTemplate.execute(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+
+            return entityManager.createQuery(OWNER_BOOKINGS, Booking.class)
+                    .setParameter("ownerId", Dataset.OWNER_ID)
+                    .setMaxResults(pageSize)
+                    .getResultList().stream()
+                    .map(BookingMapper::toBookingInfoDto)
+                    .collect(Collectors.toList());
+        });
+    }
+}
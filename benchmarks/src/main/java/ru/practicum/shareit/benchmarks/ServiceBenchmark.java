@@ -0,0 +1,71 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Методы сервисов, которые вызываются из горячих эндпоинтов, с транзакциями, маппингом и запросами к H2.
+// Читается первая страница из PAGE_SIZE записей
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp(Dataset dataset) {
+        itemService = dataset.getBean(ItemService.class);
+        bookingService = dataset.getBean(BookingService.class);
+        itemRequestService = dataset.getBean(ItemRequestService.class);
+        userService = dataset.getBean(UserService.class);
+    }
+
+    @Benchmark
+    public List<ItemInfoDto> findAllUserItems() {
+        return itemService.findAllUserItems(Dataset.OWNER_ID, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> findItemsByNameOrDescription() {
+        return itemService.findItemsByNameOrDescription("item 1", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingInfoDto> findOwnerBookings() {
+        return bookingService.findUserBookings(Dataset.OWNER_ID, "ALL", 0, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public List<BookingInfoDto> findOwnerFutureBookings() {
+        return bookingService.findUserBookings(Dataset.OWNER_ID, "FUTURE", 0, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> findAllRequests() {
+        return itemRequestService.findAllRequests(0, PAGE_SIZE, Dataset.OWNER_ID);
+    }
+
+    @Benchmark
+    public UserDto findUserById() {
+        return userService.findUserById(Dataset.BOOKER_ID);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.batch.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dispatch.BatchDispatcher;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.exception.ValidationException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/batch")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    @Value("${shareit.batch.max-requests:20}")
+    private int maxRequests;
+
+    // Выполнение нескольких запросов за одно обращение к шлюзу
+    @PostMapping
+    public BatchResponseDto executeBatch(
+            @Valid @RequestBody BatchRequestDto batchRequestDto,
+            HttpServletRequest request) {
+        int size = batchRequestDto.getRequests().size();
+
+        if (size > maxRequests) {
+            throw new ValidationException("В пакете " + size + " подзапросов, допустимо не больше " + maxRequests);
+        }
+
+        log.info("Выполнение пакета из {} подзапросов", size);
+        return new BatchResponseDto(batchDispatcher.dispatch(batchRequestDto.getRequests(), request));
+    }
+}
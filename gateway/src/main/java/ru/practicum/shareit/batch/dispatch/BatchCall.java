@@ -0,0 +1,151 @@
+package ru.practicum.shareit.batch.dispatch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindException;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import javax.validation.Validator;
+import java.util.Map;
+
+import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CONTAINS_OWNER_ID;
+
+// Подзапрос пакета, сопоставленный с эндпоинтом. Переменные пути, параметры и заголовок пользователя
+// приводятся к типам аргументов контроллера тем же ConversionService, а тело проверяется Validator
+// так же, как @Validated @RequestBody. Описание ошибки строит ErrorHandler, поэтому ответ 400 совпадает
+// с ответом на такой же отдельный запрос
+class BatchCall {
+
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private final Map<String, String> pathVariables;
+    private final MultiValueMap<String, String> queryParams;
+    @Nullable
+    private final String userId;
+    @Nullable
+    private final JsonNode body;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ErrorHandler errorHandler;
+
+    BatchCall(
+            Map<String, String> pathVariables,
+            MultiValueMap<String, String> queryParams,
+            @Nullable String userId,
+            @Nullable JsonNode body,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ErrorHandler errorHandler) {
+        this.pathVariables = pathVariables;
+        this.queryParams = queryParams;
+        this.userId = userId;
+        this.body = body;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.errorHandler = errorHandler;
+    }
+
+    Long pathVariable(String name) {
+        return convert(name, pathVariables.get(name), Long.class);
+    }
+
+    // Аналог @RequestHeader(HEADER_NAME_CONTAINS_OWNER_ID)
+    long userId() {
+        Long value = optionalUserId();
+
+        if (value == null) {
+            throw new InvalidSubRequestException(errorHandler.missingHeader(HEADER_NAME_CONTAINS_OWNER_ID));
+        }
+        return value;
+    }
+
+    // Аналог @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false)
+    @Nullable
+    Long optionalUserId() {
+        return userId != null ? convert(HEADER_NAME_CONTAINS_OWNER_ID, userId, Long.class) : null;
+    }
+
+    // Аналог @RequestParam, при defaultValue == null - обязательного
+    String param(String name, @Nullable String defaultValue) {
+        String value = queryParams.getFirst(name);
+
+        if (value != null && !(value.isEmpty() && defaultValue != null)) {
+            return value;
+        }
+
+        if (defaultValue == null) {
+            throw new InvalidSubRequestException(errorHandler.missingParameter(name));
+        }
+        return defaultValue;
+    }
+
+    Integer intParam(String name, int defaultValue) {
+        return convert(name, param(name, String.valueOf(defaultValue)), Integer.class);
+    }
+
+    Boolean booleanParam(String name) {
+        Boolean value = convert(name, param(name, null), Boolean.class);
+
+        // Пустое значение MVC приводит к null и считает параметр отсутствующим
+        if (value == null) {
+            throw new InvalidSubRequestException(errorHandler.missingParameter(name));
+        }
+        return value;
+    }
+
+    // Аналог @Validated(groups) @RequestBody, без групп - аналог @RequestBody без проверки
+    <T> T body(Class<T> type, Class<?>... groups) {
+        if (body == null || body.isNull()) {
+            throw new InvalidSubRequestException(errorHandler.unreadableBody());
+        }
+
+        T value;
+
+        try {
+            value = objectMapper.treeToValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new InvalidSubRequestException(errorHandler.unreadableBody());
+        }
+
+        if (groups.length > 0) {
+            BeanPropertyBindingResult errors = new BeanPropertyBindingResult(value, type.getSimpleName());
+
+            new SpringValidatorAdapter(validator).validate(value, errors, (Object[]) groups);
+
+            if (errors.hasErrors()) {
+                throw new InvalidSubRequestException(errorHandler.handleBindingException(new BindException(errors)));
+            }
+        }
+        return value;
+    }
+
+    private <T> T convert(String name, @Nullable String value, Class<T> type) {
+        try {
+            return CONVERSION_SERVICE.convert(value, type);
+        } catch (ConversionException e) {
+            throw new InvalidSubRequestException(errorHandler.wrongValue(name, value));
+        }
+    }
+
+    // Подзапрос не дошёл до контроллера: ответ 400 с описанием от ErrorHandler
+    @Getter
+    static class InvalidSubRequestException extends RuntimeException {
+
+        private final ErrorResponse errorResponse;
+
+        InvalidSubRequestException(ErrorResponse errorResponse) {
+            super(errorResponse.getDescription());
+            this.errorResponse = errorResponse;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.batch.dispatch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BatchConfig {
+
+    // Потоки, на которых подзапросы пакетов выполняются параллельно
+    @Bean
+    public ThreadPoolTaskExecutor batchExecutor(
+            @Value("${shareit.batch.threads:20}") int threads,
+            @Value("${shareit.batch.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("batch-");
+        return executor;
+    }
+}
@@ -0,0 +1,378 @@
+package ru.practicum.shareit.batch.dispatch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.exception.EntityAlreadyExistsException;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.exception.ErrorResponse;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.ratelimit.RateLimitFilter;
+import ru.practicum.shareit.request.controller.ItemRequestController;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utility.marker.Create;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CONTAINS_OWNER_ID;
+
+// Выполняет подзапросы пакета параллельно, вызывая методы тех же контроллеров. Аргументы собираются
+// из подзапроса так же, как их разбирает MVC (см. BatchCall), ошибки описывает ErrorHandler,
+// а ограничение частоты применяется к каждому подзапросу отдельно
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BatchDispatcher {
+
+    // Заголовки пакетного запроса, которые подзапрос получает, если не задал их сам
+    private static final List<String> INHERITED_HEADERS = List.of(HEADER_NAME_CONTAINS_OWNER_ID, HttpHeaders.ACCEPT_LANGUAGE);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Route> routes;
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
+    private final ErrorHandler errorHandler;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Executor executor;
+
+    public BatchDispatcher(
+            UserController userController,
+            ItemController itemController,
+            BookingController bookingController,
+            ItemRequestController itemRequestController,
+            ObjectProvider<RateLimitFilter> rateLimitFilter,
+            ErrorHandler errorHandler,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Qualifier("batchExecutor") Executor executor) {
+        this.rateLimitFilter = rateLimitFilter;
+        this.errorHandler = errorHandler;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.executor = executor;
+
+        // Маршруты проверяются по порядку, поэтому /items/search, /bookings/owner и /requests/all
+        // объявлены раньше шаблонов с идентификатором. Подзапрос вызывает метод контроллера, поэтому
+        // проверка параметров (@Validated на классе контроллера) и логирование те же, что у отдельного запроса
+        this.routes = List.of(
+                new Route(HttpMethod.POST, "/users", call -> userController.createUser(call.body(UserDto.class, Create.class))),
+                new Route(HttpMethod.GET, "/users/{userId}", call -> userController.findUserById(call.pathVariable("userId"))),
+                new Route(HttpMethod.GET, "/users", call -> userController.findAllUsers()),
+                new Route(HttpMethod.PATCH, "/users/{userId}", call -> userController.updateUser(
+                        call.body(UserDto.class), call.pathVariable("userId"))),
+                new Route(HttpMethod.DELETE, "/users/{userId}", call -> {
+                    userController.deleteUser(call.pathVariable("userId"));
+                    return ResponseEntity.ok().build();
+                }),
+
+                new Route(HttpMethod.POST, "/items", call -> itemController.createItem(
+                        call.body(ItemDto.class, Create.class), call.optionalUserId())),
+                new Route(HttpMethod.POST, "/items/{itemId}/comment", call -> itemController.createComment(
+                        call.body(CommentShortDto.class, Create.class), call.pathVariable("itemId"), call.optionalUserId())),
+                new Route(HttpMethod.GET, "/items/search", call -> itemController.findItemsByNameOrDescription(
+                        call.optionalUserId(), call.param("text", null), call.intParam("from", 0), call.intParam("size", 10))),
+                new Route(HttpMethod.GET, "/items/{itemId}", call -> itemController.findItemById(
+                        call.pathVariable("itemId"), call.optionalUserId())),
+                new Route(HttpMethod.GET, "/items", call -> itemController.findAllUserItems(
+                        call.optionalUserId(), call.intParam("from", 0), call.intParam("size", 10))),
+                new Route(HttpMethod.PATCH, "/items/{itemId}", call -> itemController.updateItem(
+                        call.body(ItemDto.class), call.pathVariable("itemId"), call.optionalUserId())),
+
+                new Route(HttpMethod.POST, "/bookings", call -> bookingController.bookItem(
+                        call.userId(), call.body(BookItemRequestDto.class, Default.class))),
+                new Route(HttpMethod.GET, "/bookings/owner", call -> bookingController.findBookingsForOwner(
+                        call.userId(), call.param("state", "ALL"), call.intParam("from", 0), call.intParam("size", 10))),
+                new Route(HttpMethod.GET, "/bookings/{bookingId}", call -> bookingController.getBooking(
+                        call.userId(), call.pathVariable("bookingId"))),
+                new Route(HttpMethod.GET, "/bookings", call -> bookingController.getBookings(
+                        call.userId(), call.param("state", "all"), call.intParam("from", 0), call.intParam("size", 10))),
+                new Route(HttpMethod.PATCH, "/bookings/{bookingId}", call -> bookingController.changeBookingStatus(
+                        call.pathVariable("bookingId"), call.booleanParam("approved"), call.userId())),
+
+                new Route(HttpMethod.POST, "/requests", call -> itemRequestController.createRequest(
+                        call.userId(), call.body(ItemRequestShortDto.class, Create.class))),
+                new Route(HttpMethod.GET, "/requests/all", call -> itemRequestController.findAllRequests(
+                        call.intParam("from", 0), call.intParam("size", 10), call.userId())),
+                new Route(HttpMethod.GET, "/requests/{requestId}", call -> itemRequestController.findRequestById(
+                        call.pathVariable("requestId"), call.userId())),
+                new Route(HttpMethod.GET, "/requests", call -> itemRequestController.findUserRequests(call.userId()))
+        );
+    }
+
+    public List<BatchResponseDto.SubResponse> dispatch(
+            List<BatchRequestDto.SubRequest> subRequests,
+            HttpServletRequest batchRequest) {
+        List<CompletableFuture<BatchResponseDto.SubResponse>> responses = subRequests.stream()
+                .map(subRequest -> submit(subRequest, batchRequest))
+                .collect(Collectors.toList());
+
+        return responses.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    private CompletableFuture<BatchResponseDto.SubResponse> submit(
+            BatchRequestDto.SubRequest subRequest,
+            HttpServletRequest batchRequest) {
+        try {
+            return CompletableFuture.supplyAsync(() -> execute(subRequest, batchRequest), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(errorResponse(
+                    subRequest.getId(),
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    new ErrorResponse("Сервис временно недоступен!", "Слишком много подзапросов в очереди")
+            ));
+        }
+    }
+
+    private BatchResponseDto.SubResponse execute(BatchRequestDto.SubRequest subRequest, HttpServletRequest batchRequest) {
+        String id = subRequest.getId();
+        Map<String, String> headers = subRequestHeaders(subRequest, batchRequest);
+        UriComponents uri = UriComponentsBuilder.fromUriString(subRequest.getPath()).build();
+        String path = UriUtils.decode(String.valueOf(uri.getPath()), StandardCharsets.UTF_8);
+        RateLimitFilter limiter = rateLimitFilter.getIfAvailable();
+
+        if (limiter != null) {
+            long waitNanos = limiter.tryAcquire(
+                    RateLimitFilter.resolveClient(headers.get(HEADER_NAME_CONTAINS_OWNER_ID), batchRequest.getRemoteAddr()),
+                    path
+            );
+
+            if (waitNanos > 0) {
+                long retryAfterSeconds = RateLimitFilter.retryAfterSeconds(waitNanos);
+                BatchResponseDto.SubResponse response = errorResponse(
+                        id, HttpStatus.TOO_MANY_REQUESTS, RateLimitFilter.tooManyRequests(retryAfterSeconds));
+
+                response.getHeaders().put(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                return response;
+            }
+        }
+
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+
+        // Клиенты берут ключ идемпотентности и принимаемый формат из текущего запроса,
+        // для подзапроса это его собственные заголовки
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new SubRequestHeaders(batchRequest, headers)));
+        try {
+            Route route = findRoute(subRequest.getMethod(), path);
+            ResponseEntity<byte[]> response = route.handler.apply(new BatchCall(
+                    pathMatcher.extractUriTemplateVariables(route.pattern, path),
+                    queryParams(uri),
+                    headers.get(HEADER_NAME_CONTAINS_OWNER_ID),
+                    subRequest.getBody(),
+                    objectMapper,
+                    validator,
+                    errorHandler
+            ));
+
+            return toSubResponse(id, response);
+        } catch (RuntimeException e) {
+            return handleException(id, subRequest, e);
+        } finally {
+            RequestContextHolder.setRequestAttributes(previousAttributes);
+        }
+    }
+
+    private Route findRoute(HttpMethod method, String path) {
+        boolean pathMatched = false;
+
+        for (Route route : routes) {
+            if (pathMatcher.match(route.pattern, path)) {
+                if (route.method == method) {
+                    return route;
+                }
+                pathMatched = true;
+            }
+        }
+
+        throw new UnknownRouteException(
+                pathMatched ? HttpStatus.METHOD_NOT_ALLOWED : HttpStatus.NOT_FOUND,
+                "Нет эндпоинта " + method + " " + path
+        );
+    }
+
+    private static MultiValueMap<String, String> queryParams(UriComponents uri) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+
+        uri.getQueryParams().forEach((name, values) -> values.forEach(value -> params.add(
+                UriUtils.decode(name, StandardCharsets.UTF_8),
+                value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : ""
+        )));
+        return params;
+    }
+
+    private Map<String, String> subRequestHeaders(BatchRequestDto.SubRequest subRequest, HttpServletRequest batchRequest) {
+        Map<String, String> headers = new LinkedCaseInsensitiveMap<>();
+
+        for (String name : INHERITED_HEADERS) {
+            if (batchRequest.getHeader(name) != null) {
+                headers.put(name, batchRequest.getHeader(name));
+            }
+        }
+
+        if (subRequest.getHeaders() != null) {
+            headers.putAll(subRequest.getHeaders());
+        }
+
+        // Ответы в пакете всегда в JSON, какой бы формат ни принимал клиент
+        headers.put(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        return headers;
+    }
+
+    // Ответы об ошибках те же, что у ErrorHandler для обычных запросов
+    private BatchResponseDto.SubResponse handleException(String id, BatchRequestDto.SubRequest subRequest, RuntimeException e) {
+        if (e instanceof UnknownRouteException) {
+            HttpStatus status = ((UnknownRouteException) e).status;
+
+            return errorResponse(id, status, new ErrorResponse(status.getReasonPhrase(), e.getMessage()));
+        } else if (e instanceof BatchCall.InvalidSubRequestException) {
+            return errorResponse(id, HttpStatus.BAD_REQUEST, ((BatchCall.InvalidSubRequestException) e).getErrorResponse());
+        } else if (e instanceof ConstraintViolationException) {
+            return errorResponse(id, HttpStatus.BAD_REQUEST,
+                    errorHandler.handleConstraintViolationException((ConstraintViolationException) e));
+        } else if (e instanceof ValidationException) {
+            return errorResponse(id, HttpStatus.BAD_REQUEST, errorHandler.handleValidationException((ValidationException) e));
+        } else if (e instanceof IllegalArgumentException) {
+            return errorResponse(id, HttpStatus.BAD_REQUEST,
+                    errorHandler.handleIllegalArgumentException((IllegalArgumentException) e));
+        } else if (e instanceof EntityNotFoundException) {
+            return errorResponse(id, HttpStatus.NOT_FOUND,
+                    errorHandler.handleEntityNotFoundException((EntityNotFoundException) e));
+        } else if (e instanceof EntityAlreadyExistsException) {
+            return errorResponse(id, HttpStatus.INTERNAL_SERVER_ERROR,
+                    errorHandler.handleEntityAlreadyExistsException((EntityAlreadyExistsException) e));
+        } else if (e instanceof ServerUnavailableException) {
+            return errorResponse(id, HttpStatus.SERVICE_UNAVAILABLE,
+                    errorHandler.handleServerUnavailableException((ServerUnavailableException) e));
+        }
+
+        log.warn("Ошибка подзапроса {} {}", subRequest.getMethod(), subRequest.getPath(), e);
+        return errorResponse(id, HttpStatus.INTERNAL_SERVER_ERROR, new ErrorResponse("Ошибка подзапроса!", e.getMessage()));
+    }
+
+    private BatchResponseDto.SubResponse toSubResponse(String id, ResponseEntity<byte[]> response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+
+        response.getHeaders().forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.put(name, String.join(", ", values));
+            }
+        });
+        return new BatchResponseDto.SubResponse(id, response.getStatusCodeValue(), headers, readBody(response.getBody()));
+    }
+
+    @Nullable
+    private JsonNode readBody(@Nullable byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return TextNode.valueOf(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    private BatchResponseDto.SubResponse errorResponse(String id, HttpStatus status, ErrorResponse errorResponse) {
+        Map<String, String> headers = new LinkedHashMap<>();
+
+        headers.put(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        return new BatchResponseDto.SubResponse(id, status.value(), headers, objectMapper.valueToTree(errorResponse));
+    }
+
+    @AllArgsConstructor
+    private static class Route {
+
+        private final HttpMethod method;
+        private final String pattern;
+        private final Function<BatchCall, ResponseEntity<byte[]>> handler;
+    }
+
+    private static class UnknownRouteException extends RuntimeException {
+
+        private final HttpStatus status;
+
+        private UnknownRouteException(HttpStatus status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // Пакетный запрос с заголовками подзапроса вместо собственных
+    private static class SubRequestHeaders extends HttpServletRequestWrapper {
+
+        private final Map<String, String> headers;
+
+        private SubRequestHeaders(HttpServletRequest request, Map<String, String> headers) {
+            super(request);
+            this.headers = headers;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return headers.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            String value = headers.get(name);
+
+            return Collections.enumeration(value != null ? List.of(value) : List.of());
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(headers.keySet());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpMethod;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDto {
+
+    @NotEmpty
+    private List<@Valid SubRequest> requests;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubRequest {
+
+        // Идентификатор, по которому клиент сопоставит ответ с запросом
+        private String id;
+
+        @NotNull
+        private HttpMethod method;
+
+        // Путь с параметрами запроса, например /bookings?state=CURRENT
+        @NotBlank
+        @Pattern(regexp = "/(users|items|bookings|requests)([/?].*)?")
+        private String path;
+
+        // Заголовки подзапроса; X-Sharer-User-Id по умолчанию берётся из пакетного запроса
+        private Map<String, String> headers;
+
+        private JsonNode body;
+    }
+}
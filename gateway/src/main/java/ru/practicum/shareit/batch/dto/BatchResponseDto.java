@@ -0,0 +1,32 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponseDto {
+
+    // Ответы в том же порядке, что и подзапросы
+    private List<SubResponse> responses;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubResponse {
+
+        private String id;
+
+        private int status;
+
+        private Map<String, String> headers;
+
+        private JsonNode body;
+    }
+}
@@ -1,7 +1,7 @@
 package ru.practicum.shareit.booking.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
@@ -10,52 +10,74 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.DownstreamGuards;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.PagePrefetcher;
+import ru.practicum.shareit.client.ServerInstances;
+import ru.practicum.shareit.client.WireFormatConverter;
 
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
 
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(
+            ServerInstances servers,
+            RestTemplateBuilder builder,
+            HttpComponentsClientHttpRequestFactory requestFactory,
+            DownstreamGuards guards,
+            GatewayResponseCache responseCache,
+            InFlightRequests inFlightRequests,
+            WireFormatConverter wireFormat,
+            PagePrefetcher prefetcher) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                servers,
+                guards.forClient(API_PREFIX),
+                // Бронирования не кэшируются, но их изменение сбрасывает кэшированные ответы вещей
+                responseCache,
+                inFlightRequests,
+                wireFormat,
+                prefetcher
         );
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public ResponseEntity<byte[]> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public ResponseEntity<byte[]> getBooking(long userId, Long bookingId) {
+        return getEntity("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<byte[]> getBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findUserBookings(Long userId, String state, Integer from, Integer size, boolean isOwner) {
+    public ResponseEntity<byte[]> findUserBookings(Long userId, String state, Integer from, Integer size, boolean isOwner) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
                 "size", size,
                 "isOwner", isOwner
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> changeBookingStatus(Boolean approved, Long bookingId, long userId) {
+    public ResponseEntity<byte[]> changeBookingStatus(Boolean approved, Long bookingId, long userId) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -21,12 +22,13 @@ import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CO
 @RequiredArgsConstructor
 @Slf4j
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingController {
 
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(
+    public ResponseEntity<byte[]> bookItem(
             @RequestHeader(HEADER_NAME_CONTAINS_OWNER_ID) long userId,
             @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Создание бронирования {} пользователем с id={}", requestDto, userId);
@@ -34,7 +36,7 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(
+    public ResponseEntity<byte[]> getBooking(
             @RequestHeader(HEADER_NAME_CONTAINS_OWNER_ID) long userId,
             @PathVariable Long bookingId) {
         log.info("Получение данных о бронировании с id={} пользователем с id={}", bookingId, userId);
@@ -42,7 +44,7 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(
+    public ResponseEntity<byte[]> getBookings(
             @RequestHeader(HEADER_NAME_CONTAINS_OWNER_ID) long userId,
             @RequestParam(defaultValue = "all") String state,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
@@ -55,7 +57,7 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findBookingsForOwner(
+    public ResponseEntity<byte[]> findBookingsForOwner(
             @RequestHeader(HEADER_NAME_CONTAINS_OWNER_ID) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
@@ -65,7 +67,7 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> changeBookingStatus(
+    public ResponseEntity<byte[]> changeBookingStatus(
             @PathVariable Long bookingId,
             @RequestParam Boolean approved,
             @RequestHeader(HEADER_NAME_CONTAINS_OWNER_ID) Long userId) {
@@ -3,108 +3,426 @@ package ru.practicum.shareit.client;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
 
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CONTAINS_OWNER_ID;
 
 public class BaseClient {
 
+    // Ключ, по которому сервер узнаёт повтор запроса на изменение и возвращает сохранённый ответ
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    // Отметка сервера о недавней записи клиента. Шлюз передаёт её серверу, чтобы любой экземпляр
+    // в течение окна read-your-writes читал для клиента с основной базы
+    public static final String LAST_WRITE_COOKIE = "shareit-last-write";
+
+    // Заголовки, которые относятся к соединению шлюза с сервером и не передаются клиенту
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "te", "trailer", "upgrade"
+    );
+
+    // Ответы, означающие, что сбоит сам экземпляр сервера, а не запрос
+    private static final Set<HttpStatus> INSTANCE_FAILURE_STATUSES = Set.of(
+            HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT
+    );
+
     protected final RestTemplate rest;
+    @Nullable
+    private final ServerInstances servers;
+    @Nullable
+    private final DownstreamGuard guard;
+    @Nullable
+    private final GatewayResponseCache responseCache;
+    @Nullable
+    private final InFlightRequests inFlightRequests;
+    @Nullable
+    private final WireFormatConverter wireFormat;
+    @Nullable
+    private final PagePrefetcher prefetcher;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null, null, null, null, null);
+    }
+
+    // Если servers заданы, RestTemplate строит относительные адреса, а экземпляр сервера
+    // выбирается для каждого запроса отдельно
+    public BaseClient(
+            RestTemplate rest,
+            @Nullable ServerInstances servers,
+            @Nullable DownstreamGuard guard,
+            @Nullable GatewayResponseCache responseCache,
+            @Nullable InFlightRequests inFlightRequests,
+            @Nullable WireFormatConverter wireFormat,
+            @Nullable PagePrefetcher prefetcher) {
         this.rest = rest;
+        this.servers = servers;
+        this.guard = guard;
+        this.responseCache = responseCache;
+        this.inFlightRequests = inFlightRequests;
+        this.wireFormat = wireFormat;
+        this.prefetcher = prefetcher;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected ResponseEntity<byte[]> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected ResponseEntity<byte[]> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected ResponseEntity<byte[]> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    // GET страницы списка с параметрами from и size: страница может быть уже загружена заранее,
+    // а при последовательном листании в фоне загружается следующая
+    protected ResponseEntity<byte[]> getPage(String path, Long userId, Map<String, Object> parameters) {
+        if (prefetcher == null) {
+            return get(path, userId, parameters);
+        }
+
+        String uri = expand(path, parameters);
+        // Страница, загруженная заранее, могла быть прочитана с реплики до записи клиента
+        ResponseEntity<byte[]> response = currentLastWrite() == null ? prefetcher.take(userId, uri) : null;
+
+        if (response == null) {
+            response = fetch(path, userId, parameters);
+        }
+
+        int from = (Integer) parameters.get("from");
+        int size = (Integer) parameters.get("size");
+        Map<String, Object> nextParameters = new HashMap<>(parameters);
+        Map<String, Object> seriesParameters = new TreeMap<>(parameters);
+
+        nextParameters.put("from", from + size);
+        seriesParameters.remove("from");
+        prefetcher.onPageRequested(
+                userId,
+                path + seriesParameters,
+                from,
+                size,
+                expand(path, nextParameters),
+                () -> fetch(path, userId, nextParameters)
+        );
+        return toClientFormat(response);
+    }
+
+    // GET одной сущности по идентификатору. Только такие запросы дублируются второй попыткой:
+    // их время ответа почти не зависит от параметров, поэтому перцентиль клиента для них показателен,
+    // а списки и поиск с их разбросом по размеру страницы его только искажали бы
+    protected ResponseEntity<byte[]> getEntity(String path, Long userId) {
+        String uri = expand(path, null);
+
+        return toClientFormat(coalesce(
+                inFlightKey(uri, userId),
+                () -> exchange(HttpMethod.GET, path, defaultHeaders(userId), null, null, true)
+        ));
+    }
+
+    // GET одной сущности через кэш шлюза: свежий ответ отдаётся сразу, устаревший перепроверяется по If-None-Match
+    protected ResponseEntity<byte[]> getCached(String path, Long userId) {
+        if (responseCache == null) {
+            return getEntity(path, userId);
+        }
+
+        return toClientFormat(getThroughCache(path, userId));
+    }
+
+    private ResponseEntity<byte[]> getThroughCache(String path, Long userId) {
+        String uri = expand(path, null);
+        String key = GatewayResponseCache.key(uri, userId);
+        GatewayResponseCache.CachedResponse cachedResponse = responseCache.get(key);
+
+        // После записи клиента, в том числе через другой экземпляр шлюза, кэш не отдаётся без перепроверки
+        if (cachedResponse != null && cachedResponse.isFresh() && currentLastWrite() == null) {
+            return cachedResponse.getResponse();
+        }
+
+        HttpHeaders headers = defaultHeaders(userId);
+        String inFlightKey = inFlightKey(uri, userId);
+
+        if (cachedResponse != null) {
+            headers.setIfNoneMatch(cachedResponse.getETag());
+            inFlightKey += " " + cachedResponse.getETag();
+        }
+
+        long generation = responseCache.generation();
+        ResponseEntity<byte[]> response = coalesce(inFlightKey, () -> exchange(HttpMethod.GET, path, headers, null, null, true));
+
+        if (cachedResponse != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            responseCache.revalidated(cachedResponse);
+            return cachedResponse.getResponse();
+        }
+
+        responseCache.put(key, response, generation);
+        return response;
+    }
+
+    protected <T> ResponseEntity<byte[]> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> ResponseEntity<byte[]> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ResponseEntity<byte[]> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> ResponseEntity<byte[]> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> ResponseEntity<byte[]> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> ResponseEntity<byte[]> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ResponseEntity<byte[]> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected ResponseEntity<byte[]> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected ResponseEntity<byte[]> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    // Ответ сервера передаётся клиенту байтами, без разбора JSON и повторной сериализации
+    private static ResponseEntity<byte[]> prepareGatewayResponse(
+            HttpStatus status,
+            HttpHeaders headers,
+            @Nullable byte[] body) {
+        HttpHeaders gatewayHeaders = new HttpHeaders();
+
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                gatewayHeaders.addAll(name, values);
+            }
+        });
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(gatewayHeaders);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> ResponseEntity<byte[]> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (method == HttpMethod.GET) {
+            return toClientFormat(fetch(path, userId, parameters));
+        }
 
-        ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+            return toClientFormat(exchange(method, path, defaultHeaders(userId), parameters, body, false));
+        } finally {
+            // Изменение сбрасывает кэшированные ответы ресурса и заранее загруженные страницы пользователя
+            // только после ответа сервера, иначе параллельный GET успел бы снова закэшировать старые данные.
+            // Сброс выполняется и при ошибке: запись могла примениться, даже если ответ не дошёл
+            if (responseCache != null) {
+                responseCache.invalidate(rest.getUriTemplateHandler().expand("").toString());
+            }
+
+            if (prefetcher != null) {
+                prefetcher.invalidate(userId);
+            }
+        }
+    }
+
+    // Фоновая загрузка страницы и запрос клиента за ней же объединяются в один запрос к серверу
+    private ResponseEntity<byte[]> fetch(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return coalesce(
+                inFlightKey(expand(path, parameters), userId),
+                () -> exchange(HttpMethod.GET, path, defaultHeaders(userId), parameters, null, false)
+        );
+    }
+
+    // Ответ сервера переводится в формат клиента уже после кэша и объединения запросов,
+    // так как клиенты одного и того же ответа могут принимать разные форматы
+    private ResponseEntity<byte[]> toClientFormat(ResponseEntity<byte[]> response) {
+        return wireFormat != null ? wireFormat.toClientFormat(response) : response;
+    }
+
+    private ResponseEntity<byte[]> coalesce(String key, Supplier<ResponseEntity<byte[]>> request) {
+        return inFlightRequests != null ? inFlightRequests.execute(key, request) : request.get();
+    }
+
+    // Запрос клиента с отметкой о записи не объединяется с запросами без неё, которые могут читать с реплики
+    private static String inFlightKey(String uri, @Nullable Long userId) {
+        String key = uri + "#" + userId;
+
+        return currentLastWrite() == null ? key : key + "#" + LAST_WRITE_COOKIE;
+    }
+
+    // Запрос к серверу выполняется внутри bulkhead и circuit breaker клиента, а медленный hedged-запрос
+    // дублируется второй попыткой
+    private <T> ResponseEntity<byte[]> exchange(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body, boolean hedged) {
+        if (guard != null) {
+            return guard.execute(() -> send(method, path, headers, parameters, body), hedged);
+        }
+        return send(method, path, headers, parameters, body);
+    }
+
+    // Сбой экземпляра (нет соединения или 502, 503, 504) учитывается балансировщиком, а GET-запрос
+    // и запрос с ключом идемпотентности после такого сбоя повторяются на другом экземпляре
+    private <T> ResponseEntity<byte[]> send(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (servers == null) {
+            return sendTo(null, method, path, headers, parameters, body);
+        }
+
+        ServerInstance failedInstance = null;
+        boolean idempotent = method == HttpMethod.GET || headers.containsKey(IDEMPOTENCY_KEY_HEADER);
+
+        for (int attempt = 0; ; attempt++) {
+            ServerInstance instance = servers.choose(failedInstance);
+            boolean retryable = idempotent && attempt < servers.getMaxRetries();
+
+            instance.onStart();
+            try {
+                ResponseEntity<byte[]> response = sendTo(instance.getUrl(), method, path, headers, parameters, body);
+
+                if (!INSTANCE_FAILURE_STATUSES.contains(response.getStatusCode())) {
+                    servers.onSuccess(instance);
+                    return response;
+                }
+
+                servers.onFailure(instance);
+
+                if (!retryable) {
+                    return response;
+                }
+            } catch (ResourceAccessException e) {
+                if (HedgeAttempt.isCurrentCancelled()) {
+                    throw e;
+                }
+
+                servers.onFailure(instance);
+
+                if (!retryable) {
+                    throw e;
+                }
+            } finally {
+                instance.onFinish();
+            }
+
+            failedInstance = instance;
+            servers.onRetry();
+        }
+    }
+
+    private <T> ResponseEntity<byte[]> sendTo(
+            @Nullable String serverUrl,
+            HttpMethod method,
+            String path,
+            HttpHeaders headers,
+            @Nullable Map<String, Object> parameters,
+            @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (serverUrl != null) {
+                shareitServerResponse = rest.exchange(
+                        URI.create(serverUrl + expand(path, parameters)),
+                        method,
+                        requestEntity,
+                        byte[].class
+                );
+            } else if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            HttpHeaders responseHeaders = e.getResponseHeaders() != null ? e.getResponseHeaders() : HttpHeaders.EMPTY;
+
+            return prepareGatewayResponse(e.getStatusCode(), responseHeaders, e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(
+                shareitServerResponse.getStatusCode(),
+                shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody()
+        );
+    }
+
+    private String expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters).toString()
+                : rest.getUriTemplateHandler().expand(path).toString();
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
 
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (wireFormat != null) {
+            headers.setContentType(wireFormat.contentType());
+            headers.setAccept(wireFormat.accept());
+        } else {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        }
 
         if (userId != null) {
             headers.set(HEADER_NAME_CONTAINS_OWNER_ID, String.valueOf(userId));
         }
+
+        String idempotencyKey = currentIdempotencyKey();
+
+        if (idempotencyKey != null) {
+            headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+
+        String lastWrite = currentLastWrite();
+
+        if (lastWrite != null) {
+            headers.add(HttpHeaders.COOKIE, LAST_WRITE_COOKIE + "=" + lastWrite);
+        }
         return headers;
     }
+
+    @Nullable
+    private static String currentIdempotencyKey() {
+        HttpServletRequest request = currentRequest();
+
+        return request != null ? request.getHeader(IDEMPOTENCY_KEY_HEADER) : null;
+    }
+
+    @Nullable
+    private static String currentLastWrite() {
+        HttpServletRequest request = currentRequest();
+        Cookie cookie = request != null ? WebUtils.getCookie(request, LAST_WRITE_COOKIE) : null;
+
+        return cookie != null ? cookie.getValue() : null;
+    }
+
+    @Nullable
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest() : null;
+    }
 }
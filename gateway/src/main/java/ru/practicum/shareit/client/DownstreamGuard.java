@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Bulkhead и circuit breaker одного клиента. Ошибками считаются ответы 5xx и сбои соединения,
+// медленными - запросы дольше slowCallDuration; ответы 4xx на состояние не влияют
+public class DownstreamGuard {
+
+    private final String name;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    @Nullable
+    private final RequestHedger hedger;
+
+    public DownstreamGuard(String name, Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        this(name, bulkhead, circuitBreaker, null);
+    }
+
+    public DownstreamGuard(String name, Bulkhead bulkhead, CircuitBreaker circuitBreaker, @Nullable RequestHedger hedger) {
+        this.name = name;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.hedger = hedger;
+    }
+
+    public ResponseEntity<byte[]> execute(Supplier<ResponseEntity<byte[]>> request) {
+        return execute(request, false);
+    }
+
+    // Каждая попытка hedged-запроса отдельно проходит bulkhead и circuit breaker: при их
+    // заполнении или размыкании вторая попытка не отправляется и запрос ждёт первую
+    public ResponseEntity<byte[]> execute(Supplier<ResponseEntity<byte[]>> request, boolean hedged) {
+        if (hedged && hedger != null) {
+            return hedger.execute(() -> executeAttempt(request, true));
+        }
+        return executeAttempt(request, false);
+    }
+
+    // Перцентиль для задержки второй попытки считается только по запросам, которые можно повторять
+    private ResponseEntity<byte[]> executeAttempt(Supplier<ResponseEntity<byte[]>> request, boolean hedged) {
+        if (!bulkhead.tryAcquirePermission()) {
+            throw new ServerUnavailableException("Слишком много одновременных запросов к " + name);
+        }
+
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw new ServerUnavailableException("Запросы к " + name + " временно приостановлены");
+            }
+
+            long start = System.nanoTime();
+
+            try {
+                ResponseEntity<byte[]> response = request.get();
+                long duration = System.nanoTime() - start;
+
+                if (response.getStatusCode().is5xxServerError()) {
+                    circuitBreaker.onError(
+                            duration,
+                            TimeUnit.NANOSECONDS,
+                            new HttpServerErrorException(response.getStatusCode())
+                    );
+                } else {
+                    circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+
+                    if (hedged) {
+                        hedger.recordLatency(duration);
+                    }
+                }
+                return response;
+            } catch (ResourceAccessException e) {
+                // Прерванная проигравшая попытка hedged-запроса не говорит о состоянии сервера
+                if (HedgeAttempt.isCurrentCancelled()) {
+                    circuitBreaker.releasePermission();
+                    throw e;
+                }
+
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                throw new ServerUnavailableException("Сервер не ответил на запрос к " + name + ": " + e.getMessage());
+            } catch (RuntimeException e) {
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
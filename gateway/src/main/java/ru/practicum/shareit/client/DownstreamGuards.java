@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Выдаёт каждому клиенту сервера собственные bulkhead и circuit breaker, чтобы медленный
+// эндпоинт одного клиента (например, поиск вещей) не занимал потоки и соединения других.
+// Вторые попытки hedged GET-запросов всех клиентов выполняются в общем ограниченном пуле
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DownstreamGuards implements MeterBinder, DisposableBean {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ResilienceProperties properties;
+    private final ThreadPoolExecutor hedgeExecutor;
+    private final ScheduledExecutorService hedgeTimer;
+    private final Map<String, RequestHedger> hedgers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public DownstreamGuards(ResilienceProperties properties) {
+        this.properties = properties;
+        bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                .maxWaitDuration(properties.getMaxWait())
+                .build());
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDuration())
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumCalls())
+                .waitDurationInOpenState(properties.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                .build());
+
+        AtomicInteger hedgeThreads = new AtomicInteger();
+
+        hedgeExecutor = new ThreadPoolExecutor(0, properties.getHedgeMaxConcurrent(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "hedge-" + hedgeThreads.incrementAndGet());
+
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        hedgeTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hedge-timer");
+
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Имя клиента совпадает с префиксом его API без начального слеша, например items
+    public DownstreamGuard forClient(String apiPrefix) {
+        String name = apiPrefix.startsWith("/") ? apiPrefix.substring(1) : apiPrefix;
+
+        RequestHedger hedger = properties.isHedgeEnabled() ? hedgers.computeIfAbsent(name, this::createHedger) : null;
+
+        return new DownstreamGuard(
+                name,
+                bulkheadRegistry.bulkhead(name),
+                circuitBreakerRegistry.circuitBreaker(name),
+                hedger
+        );
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(registry);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(registry);
+        hedgers.forEach((name, hedger) -> bindHedger(registry, name, hedger));
+    }
+
+    @Override
+    public void destroy() {
+        hedgeTimer.shutdownNow();
+        hedgeExecutor.shutdownNow();
+    }
+
+    private RequestHedger createHedger(String name) {
+        RequestHedger hedger = new RequestHedger(
+                properties.getHedgePercentile(),
+                properties.getHedgeMinDelay(),
+                hedgeExecutor,
+                hedgeTimer
+        );
+        MeterRegistry registry = meterRegistry;
+
+        if (registry != null) {
+            bindHedger(registry, name, hedger);
+        }
+        return hedger;
+    }
+
+    private static void bindHedger(MeterRegistry registry, String name, RequestHedger hedger) {
+        FunctionCounter.builder("gateway.hedge.requests", hedger, RequestHedger::getHedgedRequests)
+                .description("Second attempts sent for slow GET requests")
+                .tag("client", name)
+                .register(registry);
+        FunctionCounter.builder("gateway.hedge.wins", hedger, RequestHedger::getHedgeWins)
+                .description("Hedged GET requests answered by the second attempt")
+                .tag("client", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+
+// Ответ 304 клиенту, если его If-None-Match совпадает с ETag, полученным от сервера или из кэша
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EtagFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        ShallowEtagHeaderFilter filter = new EntityEtagFilter();
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+
+        // Слабый ETag не зависит от сжатия: Tomcat не сжимает ответы со строгим ETag
+        filter.setWriteWeakETag(true);
+
+        registration.addUrlPatterns("/items/*", "/requests/*", "/users/*");
+        return registration;
+    }
+
+    // Фильтр буферизует весь ответ, чтобы посчитать хэш, поэтому списки и поиск через него не проходят:
+    // ETag есть только у ответов на GET одной сущности, которые шлюз кэширует
+    private static class EntityEtagFilter extends ShallowEtagHeaderFilter {
+
+        private static final String ENTITY_PATH = "/*/{id:\\d+}";
+
+        private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !HttpMethod.GET.matches(request.getMethod())
+                    || !pathMatcher.match(ENTITY_PATH, UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Кэш ответов сервера на GET-запросы. Запись свежа в течение ttl, после чего перепроверяется
+// на сервере по ETag и хранится не дольше retention
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class GatewayResponseCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "gateway.responses";
+
+    // Ресурсы, ответы которых меняются при записи в другой ресурс: бронирование меняет lastBooking
+    // и nextBooking вещи, вещь входит в ответ на запрос, а вещи удалённого владельца скрываются
+    private static final Map<String, List<String>> DEPENDENT_RESOURCES = Map.of(
+            "/bookings", List.of("/items"),
+            "/items", List.of("/requests"),
+            "/users", List.of("/items", "/requests")
+    );
+
+    private final Cache<String, CachedResponse> cache;
+    private final long ttlNanos;
+    // Счётчик сбросов: ответ, запрошенный до сброса, мог быть прочитан до записи и не сохраняется
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public GatewayResponseCache(
+            @Value("${shareit-server.response-cache.max-size:10000}") long maxSize,
+            @Value("${shareit-server.response-cache.ttl:5s}") Duration ttl,
+            @Value("${shareit-server.response-cache.retention:10m}") Duration retention) {
+        this.ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+    }
+
+    // Ключ включает пользователя, так как ответ сервера зависит от того, кто запрашивает
+    public static String key(String uri, @Nullable Long userId) {
+        return uri + "#" + userId;
+    }
+
+    @Nullable
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    // Отметка, которую запрос к серверу берёт перед отправкой и передаёт в put
+    public long generation() {
+        return invalidations.get();
+    }
+
+    // Сохраняются только успешные ответы с ETag, иначе перепроверка невозможна. Ответ не сохраняется,
+    // если после его запроса кэш сбрасывался: сервер мог ответить ещё до завершения записи
+    public void put(String key, ResponseEntity<byte[]> response, long generation) {
+        String eTag = response.getHeaders().getETag();
+
+        if (response.getStatusCode() != HttpStatus.OK || eTag == null || invalidations.get() != generation) {
+            return;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+
+        headers.addAll(response.getHeaders());
+        headers.remove(HttpHeaders.DATE);
+        cache.put(key, new CachedResponse(ResponseEntity.ok().headers(headers).body(response.getBody()), eTag));
+    }
+
+    // Сервер ответил 304: запись снова считается свежей
+    public void revalidated(CachedResponse cachedResponse) {
+        cachedResponse.validatedAt = System.nanoTime();
+    }
+
+    // После изменения данных сбрасываются все ответы, адрес которых начинается с prefix,
+    // а также ответы зависимых ресурсов по тому же адресу сервера
+    public void invalidate(String prefix) {
+        invalidations.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        DEPENDENT_RESOURCES.forEach((resource, dependents) -> {
+            if (prefix.endsWith(resource)) {
+                String serverPrefix = prefix.substring(0, prefix.length() - resource.length());
+
+                dependents.forEach(dependent -> cache.asMap().keySet()
+                        .removeIf(key -> key.startsWith(serverPrefix + dependent)));
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    public class CachedResponse {
+
+        @Getter
+        private final ResponseEntity<byte[]> response;
+        @Getter
+        private final String eTag;
+        private volatile long validatedAt = System.nanoTime();
+
+        private CachedResponse(ResponseEntity<byte[]> response, String eTag) {
+            this.response = response;
+            this.eTag = eTag;
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - validatedAt < ttlNanos;
+        }
+    }
+}
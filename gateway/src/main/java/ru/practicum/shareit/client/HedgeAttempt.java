@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.lang.Nullable;
+
+import java.util.function.Supplier;
+
+// Попытка hedged-запроса. Фабрика запросов регистрирует в попытке текущего потока отправляемый
+// HTTP-запрос, чтобы проигравшую попытку можно было прервать сразу: иначе она держит разрешение
+// bulkhead и соединение из пула до ответа сервера или таймаута чтения
+class HedgeAttempt {
+
+    private static final ThreadLocal<HedgeAttempt> CURRENT = new ThreadLocal<>();
+
+    @Nullable
+    private HttpUriRequest request;
+    private boolean cancelled;
+    private boolean finished;
+
+    <T> T run(Supplier<T> attempt) {
+        CURRENT.set(this);
+        try {
+            return attempt.get();
+        } finally {
+            CURRENT.remove();
+            finish();
+        }
+    }
+
+    // Вызывается фабрикой запросов для каждого запроса к серверу, в том числе для повтора на другом экземпляре
+    static void register(HttpUriRequest request) {
+        HedgeAttempt attempt = CURRENT.get();
+
+        if (attempt != null) {
+            attempt.setRequest(request);
+        }
+    }
+
+    // Ошибка запроса в отменённой попытке вызвана отменой, а не сбоем сервера
+    static boolean isCurrentCancelled() {
+        HedgeAttempt attempt = CURRENT.get();
+
+        return attempt != null && attempt.isCancelled();
+    }
+
+    synchronized void cancel() {
+        if (finished) {
+            return;
+        }
+
+        cancelled = true;
+
+        if (request != null) {
+            request.abort();
+        }
+    }
+
+    private synchronized void setRequest(HttpUriRequest request) {
+        this.request = request;
+
+        if (cancelled) {
+            request.abort();
+        }
+    }
+
+    private synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    private synchronized void finish() {
+        finished = true;
+        request = null;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+
+    // Максимальное число соединений в пуле
+    private int maxTotal = 200;
+
+    // Максимальное число соединений к одному экземпляру сервера
+    private int maxPerRoute = 100;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    // Сколько запрос ждёт свободного соединения из пула
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    // Время жизни соединения, если сервер не прислал заголовок Keep-Alive
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    // Простаивающие дольше этого соединения закрываются фоновым потоком
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    // Соединение, простоявшее дольше этого, проверяется перед повторным использованием
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    // Запрашивать ли у сервера сжатые ответы (Accept-Encoding: gzip); распаковка идёт потоком
+    private boolean compression = true;
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Одинаковые GET-запросы, пришедшие одновременно, выполняются на сервере один раз:
+// первый запрос идёт на сервер, остальные ждут и получают тот же ответ
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class InFlightRequests implements MeterBinder {
+
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> requests = new ConcurrentHashMap<>();
+    private volatile Counter coalescedCounter;
+
+    public ResponseEntity<byte[]> execute(String key, Supplier<ResponseEntity<byte[]>> request) {
+        CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> inFlight = requests.putIfAbsent(key, call);
+
+        if (inFlight != null) {
+            countCoalesced();
+            return await(inFlight);
+        }
+
+        try {
+            ResponseEntity<byte[]> response = request.get();
+
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            requests.remove(key, call);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        coalescedCounter = Counter.builder("gateway.requests.coalesced")
+                .description("GET requests served by an identical request already in flight")
+                .register(registry);
+        Gauge.builder("gateway.requests.in.flight", requests, ConcurrentMap::size)
+                .description("Distinct GET requests currently in flight to the server")
+                .register(registry);
+    }
+
+    // Ошибка первого запроса (например, недоступность сервера) передаётся всем ожидающим
+    private static ResponseEntity<byte[]> await(CompletableFuture<ResponseEntity<byte[]>> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void countCoalesced() {
+        Counter counter = coalescedCounter;
+
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
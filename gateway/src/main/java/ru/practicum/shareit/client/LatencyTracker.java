@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Длительности последних запросов клиента в кольцевом буфере. Перцентиль пересчитывается
+// не на каждый запрос, а раз в RECALCULATE_EVERY запросов, поэтому запись почти ничего не стоит
+public class LatencyTracker {
+
+    private static final int CAPACITY = 1024;
+    private static final int RECALCULATE_EVERY = 64;
+    private static final int MIN_SAMPLES = 100;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(CAPACITY);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public void record(long nanos) {
+        long index = count.getAndIncrement();
+
+        samples.set((int) (index % CAPACITY), nanos);
+
+        if (index + 1 >= MIN_SAMPLES && (index + 1) % RECALCULATE_EVERY == 0) {
+            recalculate((int) Math.min(index + 1, CAPACITY));
+        }
+    }
+
+    // Пока запросов слишком мало, перцентиль неизвестен и возвращается -1
+    public long getPercentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recalculate(int size) {
+        long[] sorted = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+
+        Arrays.sort(sorted);
+        percentileNanos = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.load-balancer")
+public class LoadBalancerProperties {
+
+    // Путь, по которому экземпляры сервера периодически проверяются
+    private String healthCheckPath = "/actuator/health";
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    // После стольких сбоев подряд экземпляр временно исключается из балансировки
+    private int consecutiveFailures = 5;
+
+    // На сколько исключается экземпляр; при повторных исключениях срок растёт кратно
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    // Сколько раз GET-запрос повторяется на другом экземпляре после сбоя
+    private int maxRetries = 1;
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Предзагрузка следующей страницы списков. Если пользователь листает список подряд
+// (from очередного запроса равен from + size предыдущего), следующая страница заранее
+// запрашивается у сервера в фоне и недолго хранится для этого пользователя.
+// Любой запрос пользователя на изменение сбрасывает его предзагруженные страницы
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PagePrefetcher implements MeterBinder, DisposableBean {
+
+    private final boolean enabled;
+    private final Cache<Long, UserPages> users;
+    private final long ttlNanos;
+    private final ThreadPoolExecutor executor;
+    private volatile Counter hitCounter;
+    private volatile Counter missCounter;
+    private volatile Counter prefetchCounter;
+    private volatile Counter rejectedCounter;
+
+    public PagePrefetcher(
+            @Value("${shareit-server.prefetch.enabled:true}") boolean enabled,
+            @Value("${shareit-server.prefetch.ttl:5s}") Duration ttl,
+            @Value("${shareit-server.prefetch.max-users:10000}") long maxUsers,
+            @Value("${shareit-server.prefetch.threads:4}") int threads,
+            @Value("${shareit-server.prefetch.queue-capacity:100}") int queueCapacity) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(ttl.multipliedBy(12))
+                .build();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "page-prefetch-" + threadNumber.incrementAndGet());
+
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Предзагруженная страница отдаётся один раз и только пока не истёк ttl
+    @Nullable
+    public ResponseEntity<byte[]> take(@Nullable Long userId, String uri) {
+        UserPages pages = userId != null ? users.getIfPresent(userId) : null;
+        PrefetchedPage page = pages != null ? pages.pages.remove(uri) : null;
+
+        if (page == null || System.nanoTime() - page.fetchedAt > ttlNanos) {
+            increment(missCounter);
+            return null;
+        }
+
+        increment(hitCounter);
+        return page.response;
+    }
+
+    // Запрошена страница from списка series. Если запрос продолжает листание, в фоне
+    // запрашивается страница, начинающаяся с from + size
+    public void onPageRequested(
+            @Nullable Long userId,
+            String series,
+            int from,
+            int size,
+            String nextUri,
+            Supplier<ResponseEntity<byte[]>> nextPage) {
+        if (!enabled || userId == null || size <= 0) {
+            return;
+        }
+
+        UserPages pages = users.get(userId, id -> new UserPages());
+        Integer expectedFrom = pages.expectedFrom.put(series, from + size);
+
+        if (expectedFrom == null || expectedFrom != from || pages.pages.containsKey(nextUri)) {
+            return;
+        }
+
+        long generation = pages.generation.get();
+
+        try {
+            executor.execute(() -> prefetch(pages, generation, nextUri, nextPage));
+            increment(prefetchCounter);
+        } catch (RejectedExecutionException e) {
+            increment(rejectedCounter);
+        }
+    }
+
+    public void invalidate(@Nullable Long userId) {
+        UserPages pages = userId != null ? users.getIfPresent(userId) : null;
+
+        if (pages != null) {
+            pages.generation.incrementAndGet();
+            pages.pages.clear();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hitCounter = Counter.builder("gateway.prefetch.requests")
+                .description("Page requests answered by a prefetched page")
+                .tag("result", "hit")
+                .register(registry);
+        missCounter = Counter.builder("gateway.prefetch.requests")
+                .description("Page requests answered by a prefetched page")
+                .tag("result", "miss")
+                .register(registry);
+        prefetchCounter = Counter.builder("gateway.prefetch.fetches")
+                .description("Next pages requested from the server in the background")
+                .tag("result", "submitted")
+                .register(registry);
+        rejectedCounter = Counter.builder("gateway.prefetch.fetches")
+                .description("Next pages requested from the server in the background")
+                .tag("result", "rejected")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    // Страница, загруженная до изменения данных пользователем, не сохраняется
+    private void prefetch(UserPages pages, long generation, String uri, Supplier<ResponseEntity<byte[]>> nextPage) {
+        try {
+            ResponseEntity<byte[]> response = nextPage.get();
+
+            if (response.getStatusCode().is2xxSuccessful() && pages.generation.get() == generation) {
+                pages.pages.put(uri, new PrefetchedPage(response, System.nanoTime()));
+
+                if (pages.generation.get() != generation) {
+                    pages.pages.remove(uri);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug("Не удалось заранее загрузить страницу {}: {}", uri, e.getMessage());
+        }
+    }
+
+    private static void increment(@Nullable Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static class UserPages {
+
+        private final ConcurrentMap<String, Integer> expectedFrom = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, PrefetchedPage> pages = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+    }
+
+    private static class PrefetchedPage {
+
+        private final ResponseEntity<byte[]> response;
+        private final long fetchedAt;
+
+        private PrefetchedPage(ResponseEntity<byte[]> response, long fetchedAt) {
+            this.response = response;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Hedged GET: если сервер не ответил за время, в которое укладывается заданный перцентиль
+// прошлых запросов клиента, отправляется вторая попытка, и клиент получает первый из ответов.
+// Второй запрос уходит лишь в хвосте распределения, поэтому нагрузка растёт на доли процента
+public class RequestHedger {
+
+    private final LatencyTracker latencyTracker;
+    private final long minDelayNanos;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    public RequestHedger(double percentile, Duration minDelay, ExecutorService executor, ScheduledExecutorService timer) {
+        this.latencyTracker = new LatencyTracker(percentile);
+        this.minDelayNanos = minDelay.toNanos();
+        this.executor = executor;
+        this.timer = timer;
+    }
+
+    public long getHedgedRequests() {
+        return hedgedRequests.get();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    public void recordLatency(long nanos) {
+        latencyTracker.record(nanos);
+    }
+
+    // Первая попытка выполняется в потоке запроса, в пул попыток уходит только вторая. Когда одна из
+    // попыток ответила, другая прерывается. Пока статистики недостаточно, запрос выполняется как обычно
+    public ResponseEntity<byte[]> execute(Supplier<ResponseEntity<byte[]>> attempt) {
+        long percentileNanos = latencyTracker.getPercentileNanos();
+
+        if (percentileNanos < 0) {
+            return attempt.get();
+        }
+
+        CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        HedgeAttempt first = new HedgeAttempt();
+        HedgeAttempt second = new HedgeAttempt();
+        AtomicReference<Future<?>> secondFuture = new AtomicReference<>();
+
+        ScheduledFuture<?> hedge = timer.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+
+            pending.incrementAndGet();
+            hedgedRequests.incrementAndGet();
+            try {
+                secondFuture.set(executor.submit(() -> runAttempt(attempt, second, result, pending, true)));
+            } catch (RejectedExecutionException e) {
+                // Пул попыток занят: запрос ждёт первую попытку
+                onAttemptFailed(result, pending, e);
+            }
+
+            if (result.isDone()) {
+                cancel(secondFuture.get(), second);
+            }
+        }, Math.max(minDelayNanos, percentileNanos), TimeUnit.NANOSECONDS);
+
+        result.whenComplete((response, e) -> {
+            hedge.cancel(false);
+            first.cancel();
+            cancel(secondFuture.get(), second);
+        });
+
+        runAttempt(attempt, first, result, pending, false);
+        return await(result);
+    }
+
+    private static void cancel(@Nullable Future<?> future, HedgeAttempt attempt) {
+        attempt.cancel();
+
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    private static void onAttemptFailed(
+            CompletableFuture<ResponseEntity<byte[]>> result,
+            AtomicInteger pending,
+            RuntimeException e) {
+        if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    // Результат отдаётся первой успешной попытке; ошибкой запрос завершается, только если не удались все начатые
+    private void runAttempt(
+            Supplier<ResponseEntity<byte[]>> attempt,
+            HedgeAttempt hedgeAttempt,
+            CompletableFuture<ResponseEntity<byte[]>> result,
+            AtomicInteger pending,
+            boolean hedge) {
+        try {
+            ResponseEntity<byte[]> response = hedgeAttempt.run(attempt);
+
+            if (result.complete(response) && hedge) {
+                hedgeWins.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            onAttemptFailed(result, pending, e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> await(CompletableFuture<ResponseEntity<byte[]>> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание ответа сервера прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
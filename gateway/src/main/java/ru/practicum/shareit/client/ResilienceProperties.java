@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Настройки изоляции клиентов сервера: у каждого клиента свой bulkhead и свой circuit breaker
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ResilienceProperties {
+
+    // Сколько запросов одного клиента может одновременно выполняться на сервере
+    private int maxConcurrentCalls = 50;
+
+    // Сколько запрос ждёт свободного места в bulkhead, прежде чем получить отказ
+    private Duration maxWait = Duration.ZERO;
+
+    // Доля ошибок (в процентах), при которой circuit breaker размыкается
+    private float failureRateThreshold = 50;
+
+    // Доля медленных запросов (в процентах), при которой circuit breaker размыкается
+    private float slowCallRateThreshold = 80;
+
+    // Запрос дольше этого считается медленным
+    private Duration slowCallDuration = Duration.ofSeconds(2);
+
+    // По скольким последним запросам считаются доли ошибок и медленных запросов
+    private int slidingWindowSize = 50;
+
+    // Меньше этого числа запросов в окне circuit breaker не размыкается
+    private int minimumCalls = 20;
+
+    // Сколько circuit breaker остаётся разомкнутым, прежде чем пропустить пробные запросы
+    private Duration waitInOpenState = Duration.ofSeconds(10);
+
+    private int permittedCallsInHalfOpenState = 5;
+
+    // Повторять ли GET-запрос, если сервер отвечает дольше обычного (hedged requests)
+    private boolean hedgeEnabled = true;
+
+    // Перцентиль длительности прошлых запросов, после которого отправляется вторая попытка
+    private double hedgePercentile = 0.95;
+
+    // Вторая попытка не отправляется раньше этого времени, даже если сервер обычно отвечает быстрее
+    private Duration hedgeMinDelay = Duration.ofMillis(20);
+
+    // Сколько вторых попыток hedged-запросов всех клиентов может выполняться одновременно
+    private int hedgeMaxConcurrent = 200;
+}
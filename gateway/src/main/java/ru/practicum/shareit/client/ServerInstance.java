@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Экземпляр сервера с числом запросов в работе и признаками доступности
+public class ServerInstance {
+
+    private static final int MAX_EJECTION_MULTIPLIER = 10;
+
+    @Getter
+    private final String url;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile long ejectedUntil = System.nanoTime();
+
+    ServerInstance(String url) {
+        this.url = url;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isAvailable(long now) {
+        return healthy && now - ejectedUntil >= 0;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    void onFinish() {
+        outstanding.decrementAndGet();
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        ejections.set(0);
+    }
+
+    // Возвращает true, если сбой привёл к исключению экземпляра. Если после возвращения
+    // экземпляр снова сбоит, не ответив ни разу успешно, срок исключения растёт
+    boolean onFailure(long now, int failuresToEject, long ejectionNanos) {
+        if (consecutiveFailures.incrementAndGet() < failuresToEject) {
+            return false;
+        }
+
+        consecutiveFailures.set(0);
+        ejectedUntil = now + ejectionNanos * Math.min(ejections.incrementAndGet(), MAX_EJECTION_MULTIPLIER);
+        return true;
+    }
+}
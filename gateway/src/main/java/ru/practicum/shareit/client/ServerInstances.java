@@ -0,0 +1,212 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Экземпляры сервера из shareit-server.urls и выбор экземпляра для очередного запроса:
+// из двух случайных доступных берётся тот, у которого меньше запросов в работе.
+// Экземпляры периодически проверяются, пока запущен контекст, а сбоящие подряд временно исключаются
+@Slf4j
+@Component
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServerInstances implements MeterBinder, SmartLifecycle {
+
+    private final List<ServerInstance> instances;
+    private final LoadBalancerProperties properties;
+    private final CloseableHttpClient httpClient;
+    private volatile ScheduledExecutorService healthChecker;
+    private volatile Counter retryCounter;
+    private volatile MeterRegistry meterRegistry;
+
+    public ServerInstances(
+            @Value("${shareit-server.urls:${shareit-server.url}}") List<String> urls,
+            LoadBalancerProperties properties,
+            CloseableHttpClient httpClient) {
+        this.instances = urls.stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .map(ServerInstance::new)
+                .collect(Collectors.toUnmodifiableList());
+        if (instances.isEmpty()) {
+            throw new IllegalStateException("Не задан ни один адрес сервера в shareit-server.urls");
+        }
+
+        this.properties = properties;
+        this.httpClient = httpClient;
+        log.info("Запросы к серверу распределяются между {}", urls);
+    }
+
+    public int getMaxRetries() {
+        return instances.size() > 1 ? properties.getMaxRetries() : 0;
+    }
+
+    // Если доступных экземпляров нет, запрос всё равно отправляется на один из остальных
+    public ServerInstance choose(@Nullable ServerInstance excluded) {
+        long now = System.nanoTime();
+        List<ServerInstance> candidates = instances.stream()
+                .filter(instance -> instance != excluded && instance.isAvailable(now))
+                .collect(Collectors.toList());
+
+        if (candidates.isEmpty()) {
+            candidates = instances.stream()
+                    .filter(instance -> instance != excluded)
+                    .collect(Collectors.toList());
+        }
+
+        if (candidates.isEmpty()) {
+            return excluded;
+        }
+
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+
+        if (second >= first) {
+            second++;
+        }
+
+        ServerInstance firstInstance = candidates.get(first);
+        ServerInstance secondInstance = candidates.get(second);
+
+        return firstInstance.getOutstanding() <= secondInstance.getOutstanding() ? firstInstance : secondInstance;
+    }
+
+    public void onSuccess(ServerInstance instance) {
+        instance.onSuccess();
+    }
+
+    public void onFailure(ServerInstance instance) {
+        long ejectionNanos = properties.getEjectionTime().toNanos();
+
+        if (instance.onFailure(System.nanoTime(), properties.getConsecutiveFailures(), ejectionNanos)) {
+            log.warn("Экземпляр сервера {} временно исключён из балансировки", instance.getUrl());
+            countEjection(instance);
+        }
+    }
+
+    public void onRetry() {
+        Counter counter = retryCounter;
+
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        retryCounter = Counter.builder("gateway.server.retries")
+                .description("Idempotent requests retried on another server instance")
+                .register(registry);
+
+        for (ServerInstance instance : instances) {
+            Gauge.builder("gateway.server.outstanding", instance, ServerInstance::getOutstanding)
+                    .description("Requests in flight to the server instance")
+                    .tag("instance", instance.getUrl())
+                    .register(registry);
+            Gauge.builder("gateway.server.available", instance, i -> i.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .description("Whether the server instance receives requests")
+                    .tag("instance", instance.getUrl())
+                    .register(registry);
+        }
+    }
+
+    // Проверки здоровья идут в отдельном потоке с запуска контекста до его остановки
+    @Override
+    public synchronized void start() {
+        if (healthChecker != null) {
+            return;
+        }
+
+        long interval = properties.getHealthCheckInterval().toMillis();
+
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "server-health-check");
+
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+            healthChecker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return healthChecker != null;
+    }
+
+    private void checkHealth() {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getHealthCheckTimeout().toMillis())
+                .setSocketTimeout((int) properties.getHealthCheckTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getHealthCheckTimeout().toMillis())
+                .build();
+
+        for (ServerInstance instance : instances) {
+            HttpGet request = new HttpGet(instance.getUrl() + properties.getHealthCheckPath());
+            boolean healthy;
+
+            request.setConfig(requestConfig);
+
+            try (CloseableHttpResponse response = httpClient.execute(request)) {
+                healthy = response.getStatusLine().getStatusCode() == HttpStatus.SC_OK;
+                EntityUtils.consume(response.getEntity());
+            } catch (IOException | RuntimeException e) {
+                healthy = false;
+            }
+
+            if (healthy != instance.isHealthy()) {
+                log.warn("Экземпляр сервера {} {}", instance.getUrl(), healthy ? "снова доступен" : "не прошёл проверку");
+            }
+            instance.setHealthy(healthy);
+        }
+    }
+
+    private void countEjection(ServerInstance instance) {
+        MeterRegistry registry = meterRegistry;
+
+        if (registry != null) {
+            Counter.builder("gateway.server.ejections")
+                    .description("Times the server instance was ejected after consecutive failures")
+                    .tag("instance", instance.getUrl())
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
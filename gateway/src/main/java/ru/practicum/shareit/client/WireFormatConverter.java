@@ -0,0 +1,113 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Формат обмена шлюза с сервером. В режиме smile запросы и ответы передаются в бинарном
+// формате Smile, а в JSON ответ переводится только на выходе из шлюза, если клиент не
+// запросил Smile сам
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WireFormatConverter {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private static final String JSON_ETAG_SUFFIX = "-json";
+
+    private final boolean smile;
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final JsonFactory jsonFactory;
+
+    public WireFormatConverter(@Value("${shareit-server.wire-format:smile}") String wireFormat, ObjectMapper objectMapper) {
+        this.smile = "smile".equalsIgnoreCase(wireFormat);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public MediaType contentType() {
+        return smile ? APPLICATION_SMILE : MediaType.APPLICATION_JSON;
+    }
+
+    public List<MediaType> accept() {
+        return smile ? List.of(APPLICATION_SMILE, MediaType.APPLICATION_JSON) : List.of(MediaType.APPLICATION_JSON);
+    }
+
+    public ResponseEntity<byte[]> toClientFormat(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = response.getHeaders();
+
+        if (!APPLICATION_SMILE.equalsTypeAndSubtype(headers.getContentType()) || clientAcceptsSmile()) {
+            return response;
+        }
+
+        HttpHeaders jsonHeaders = new HttpHeaders();
+
+        jsonHeaders.addAll(headers);
+        jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+        jsonHeaders.setVary(List.of(HttpHeaders.ACCEPT));
+
+        if (headers.getETag() != null) {
+            jsonHeaders.setETag(jsonETag(headers.getETag()));
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode()).headers(jsonHeaders);
+
+        if (response.getBody() == null) {
+            return responseBuilder.build();
+        }
+        return responseBuilder.body(smileToJson(response.getBody()));
+    }
+
+    // Потоковое копирование токенов без построения дерева объектов
+    private byte[] smileToJson(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length * 2);
+
+        try (JsonParser parser = smileFactory.createParser(body);
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // У представлений в разных форматах должны быть разные ETag
+    private static String jsonETag(String eTag) {
+        int closingQuote = eTag.lastIndexOf('"');
+
+        if (closingQuote <= 0) {
+            return eTag;
+        }
+        return eTag.substring(0, closingQuote) + JSON_ETAG_SUFFIX + eTag.substring(closingQuote);
+    }
+
+    private static boolean clientAcceptsSmile() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+
+        String accept = ((ServletRequestAttributes) attributes).getRequest().getHeader(HttpHeaders.ACCEPT);
+
+        return accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(APPLICATION_SMILE::equalsTypeAndSubtype);
+    }
+}
@@ -1,15 +1,41 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ServerWebInputException;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Path;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+// Общий для обоих режимов шлюза: ошибки разбора и проверки запроса в servlet-режиме (MVC)
+// и в реактивном (WebFlux) приводятся к одинаковым статусам и телам ответа
 @Slf4j
 @RestControllerAdvice("ru.practicum.shareit")
 public class ErrorHandler {
 
+    private static final String BAD_REQUEST = "Неверный запрос!";
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleEntityAlreadyExistsException(final EntityAlreadyExistsException exception) {
@@ -21,7 +47,80 @@ public class ErrorHandler {
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationException(final ValidationException exception) {
         log.debug("400 {}", exception.getMessage(), exception);
-        return new ErrorResponse("Неверный запрос!", exception.getMessage());
+        return new ErrorResponse(BAD_REQUEST, exception.getMessage());
+    }
+
+    // Тело запроса не прошло проверку (@Valid, @Validated): MVC и WebFlux
+    @ExceptionHandler({MethodArgumentNotValidException.class, WebExchangeBindException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleBindingException(final Exception exception) {
+        log.debug("400 {}", exception.getMessage());
+        return new ErrorResponse(BAD_REQUEST, ((BindingResult) exception).getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .sorted()
+                .collect(Collectors.joining(", ")));
+    }
+
+    // Параметр или заголовок не прошёл проверку @Validated на уровне контроллера
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolationException(final ConstraintViolationException exception) {
+        log.debug("400 {}", exception.getMessage());
+        return new ErrorResponse(BAD_REQUEST, exception.getConstraintViolations().stream()
+                .map(violation -> leafName(violation) + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", ")));
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleMissingRequestHeaderException(final MissingRequestHeaderException exception) {
+        log.debug("400 {}", exception.getMessage());
+        return missingHeader(exception.getHeaderName());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleMissingServletRequestParameterException(
+            final MissingServletRequestParameterException exception) {
+        log.debug("400 {}", exception.getMessage());
+        return missingParameter(exception.getParameterName());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleMethodArgumentTypeMismatchException(final MethodArgumentTypeMismatchException exception) {
+        log.debug("400 {}", exception.getMessage());
+        return wrongValue(exception.getName(), exception.getValue());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleHttpMessageNotReadableException(final HttpMessageNotReadableException exception) {
+        log.debug("400 {}", exception.getMessage());
+        return unreadableBody();
+    }
+
+    // Ошибки разбора запроса в WebFlux: отсутствующий заголовок или параметр, значение не того типа,
+    // нечитаемое тело. Описания совпадают с описаниями тех же ошибок в MVC
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleServerWebInputException(final ServerWebInputException exception) {
+        log.debug("400 {}", exception.getMessage());
+        MethodParameter parameter = exception.getMethodParameter();
+
+        if (parameter == null) {
+            return new ErrorResponse(BAD_REQUEST, exception.getReason());
+        } else if (exception.getCause() instanceof TypeMismatchException) {
+            return wrongValue(parameterName(parameter), ((TypeMismatchException) exception.getCause()).getValue());
+        } else if (parameter.hasParameterAnnotation(RequestHeader.class)) {
+            return missingHeader(parameterName(parameter));
+        } else if (parameter.hasParameterAnnotation(RequestParam.class)) {
+            return missingParameter(parameterName(parameter));
+        } else if (parameter.hasParameterAnnotation(RequestBody.class)) {
+            return unreadableBody();
+        }
+        return new ErrorResponse(BAD_REQUEST, exception.getReason());
     }
 
     @ExceptionHandler
@@ -35,6 +134,64 @@ public class ErrorHandler {
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleIllegalArgumentException(final IllegalArgumentException exception) {
         log.debug("400 {}", exception.getMessage(), exception);
-        return new ErrorResponse(exception.getMessage(), "Неверный запрос!");
+        return new ErrorResponse(exception.getMessage(), BAD_REQUEST);
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServerUnavailableException(final ServerUnavailableException exception) {
+        log.debug("503 {}", exception.getMessage(), exception);
+        return new ErrorResponse("Сервис временно недоступен!", exception.getMessage());
+    }
+
+    // Реактивный клиент не получил ответа сервера: как ServerUnavailableException в servlet-режиме
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleWebClientRequestException(final WebClientRequestException exception) {
+        log.debug("503 {}", exception.getMessage(), exception);
+        return new ErrorResponse("Сервис временно недоступен!", "Сервер не ответил на запрос к "
+                + exception.getUri().getPath() + ": " + exception.getMostSpecificCause().getMessage());
+    }
+
+    // Описания ошибок разбора запроса, общие для MVC, WebFlux и подзапросов пакета
+    public ErrorResponse missingHeader(String name) {
+        return new ErrorResponse(BAD_REQUEST, "Не указан заголовок " + name);
+    }
+
+    public ErrorResponse missingParameter(String name) {
+        return new ErrorResponse(BAD_REQUEST, "Не указан параметр " + name);
+    }
+
+    public ErrorResponse wrongValue(String name, @Nullable Object value) {
+        return new ErrorResponse(BAD_REQUEST, "Неверное значение " + name + ": " + value);
+    }
+
+    public ErrorResponse unreadableBody() {
+        return new ErrorResponse(BAD_REQUEST, "Неверное тело запроса");
+    }
+
+    // Имя из аннотации, как в MVC-исключениях, иначе имя параметра метода
+    private static String parameterName(MethodParameter parameter) {
+        RequestHeader header = parameter.getParameterAnnotation(RequestHeader.class);
+        RequestParam param = parameter.getParameterAnnotation(RequestParam.class);
+        PathVariable variable = parameter.getParameterAnnotation(PathVariable.class);
+        String name = "";
+
+        if (header != null) {
+            name = header.name().isEmpty() ? header.value() : header.name();
+        } else if (param != null) {
+            name = param.name().isEmpty() ? param.value() : param.name();
+        } else if (variable != null) {
+            name = variable.name().isEmpty() ? variable.value() : variable.name();
+        }
+        return name.isEmpty() ? parameter.getParameterName() : name;
+    }
+
+    // Имя параметра без имени метода: getBookings.from -> from
+    private static String leafName(ConstraintViolation<?> violation) {
+        return StreamSupport.stream(violation.getPropertyPath().spliterator(), false)
+                .reduce((first, second) -> second)
+                .map(Path.Node::getName)
+                .orElse("");
     }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exception;
+
+public class ServerUnavailableException extends RuntimeException {
+
+    public ServerUnavailableException(String message) {
+        super(message);
+    }
+}
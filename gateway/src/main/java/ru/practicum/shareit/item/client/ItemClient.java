@@ -1,63 +1,84 @@
 package ru.practicum.shareit.item.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.DownstreamGuards;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.PagePrefetcher;
+import ru.practicum.shareit.client.ServerInstances;
+import ru.practicum.shareit.client.WireFormatConverter;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(
+            ServerInstances servers,
+            RestTemplateBuilder builder,
+            HttpComponentsClientHttpRequestFactory requestFactory,
+            DownstreamGuards guards,
+            GatewayResponseCache responseCache,
+            InFlightRequests inFlightRequests,
+            WireFormatConverter wireFormat,
+            PagePrefetcher prefetcher) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                servers,
+                guards.forClient(API_PREFIX),
+                responseCache,
+                inFlightRequests,
+                wireFormat,
+                prefetcher
         );
     }
 
-    public ResponseEntity<Object> createItem(ItemDto itemDto, Long userId) {
+    public ResponseEntity<byte[]> createItem(ItemDto itemDto, Long userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> createComment(CommentShortDto commentShortDto, Long itemId, Long userId) {
+    public ResponseEntity<byte[]> createComment(CommentShortDto commentShortDto, Long itemId, Long userId) {
         return post("/" + itemId + "/comment", userId, commentShortDto);
     }
 
-    public ResponseEntity<Object> findItemById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public ResponseEntity<byte[]> findItemById(Long itemId, Long userId) {
+        return getCached("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> findAllUserItems(Long userId, Integer from, Integer size) {
+    public ResponseEntity<byte[]> findAllUserItems(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("", userId, parameters);
+        return getPage("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findItemsByNameOrDescription(Long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<byte[]> findItemsByNameOrDescription(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return getPage("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> updateItem(ItemDto itemDto, Long userId) {
+    public ResponseEntity<byte[]> updateItem(ItemDto itemDto, Long userId) {
         return patch("/" + itemDto.getId(), userId, itemDto);
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +18,7 @@ import javax.validation.constraints.PositiveOrZero;
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemController {
 
     public static final String HEADER_NAME_CONTAINS_OWNER_ID = "X-Sharer-User-Id";
@@ -24,28 +26,26 @@ public class ItemController {
 
     // Добавление новой вещи
     @PostMapping
-    public ResponseEntity<Object> createItem(
+    public ResponseEntity<byte[]> createItem(
             @Validated({Create.class}) @RequestBody ItemDto itemDto,
             @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId) {
-        ResponseEntity<Object> newItemDto = itemClient.createItem(itemDto, userId);
-        log.info("Создание предмета {}", newItemDto);
-        return newItemDto;
+        log.info("Создание предмета {} пользователем с id={}", itemDto, userId);
+        return itemClient.createItem(itemDto, userId);
     }
 
     // Добавление нового комментария
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(
+    public ResponseEntity<byte[]> createComment(
             @Validated({Create.class}) @RequestBody CommentShortDto commentShortDto,
             @PathVariable Long itemId,
             @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId) {
-        ResponseEntity<Object> newCommentDto = itemClient.createComment(commentShortDto, itemId, userId);
-        log.info("Создание комментария {}", newCommentDto);
-        return newCommentDto;
+        log.info("Создание комментария {} к предмету с id={}", commentShortDto, itemId);
+        return itemClient.createComment(commentShortDto, itemId, userId);
     }
 
     // Просмотр информации о конкретной вещи по её идентификатору
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> findItemById(
+    public ResponseEntity<byte[]> findItemById(
             @PathVariable Long itemId,
             @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId) {
         log.info("Получение данных вещи с id={}", itemId);
@@ -54,7 +54,7 @@ public class ItemController {
 
     // Просмотр владельцем списка всех его вещей
     @GetMapping
-    public ResponseEntity<Object> findAllUserItems(
+    public ResponseEntity<byte[]> findAllUserItems(
             @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
             @Positive @RequestParam(defaultValue = "10") Integer size) {
@@ -64,7 +64,7 @@ public class ItemController {
 
     // Поиск вещи по имени или описанию
     @GetMapping("/search")
-    public ResponseEntity<Object> findItemsByNameOrDescription(
+    public ResponseEntity<byte[]> findItemsByNameOrDescription(
             @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId,
             @RequestParam String text,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
@@ -75,13 +75,12 @@ public class ItemController {
 
     // Редактирование вещи
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public ResponseEntity<byte[]> updateItem(
             @RequestBody ItemDto itemDto,
             @PathVariable Long itemId,
             @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId) {
         itemDto.setId(itemId);
-        ResponseEntity<Object> newItemDto = itemClient.updateItem(itemDto, userId);
-        log.info("Обновление предмета {}", newItemDto);
-        return newItemDto;
+        log.info("Обновление предмета {}", itemDto);
+        return itemClient.updateItem(itemDto, userId);
     }
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.client.ReactiveItemClient;
+import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utility.marker.Create;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CONTAINS_OWNER_ID;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemController {
+
+    private final ReactiveItemClient itemClient;
+
+    // Добавление новой вещи
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createItem(
+            @Validated({Create.class}) @RequestBody ItemDto itemDto,
+            @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId) {
+        log.info("Создание предмета {} пользователем с id={}", itemDto, userId);
+        return itemClient.createItem(itemDto, userId);
+    }
+
+    // Добавление нового комментария
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<byte[]>> createComment(
+            @Validated({Create.class}) @RequestBody CommentShortDto commentShortDto,
+            @PathVariable Long itemId,
+            @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId) {
+        log.info("Создание комментария {} к предмету с id={}", commentShortDto, itemId);
+        return itemClient.createComment(commentShortDto, itemId, userId);
+    }
+
+    // Просмотр информации о конкретной вещи по её идентификатору
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<byte[]>> findItemById(
+            @PathVariable Long itemId,
+            @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId) {
+        log.info("Получение данных вещи с id={}", itemId);
+        return itemClient.findItemById(itemId, userId);
+    }
+
+    // Просмотр владельцем списка всех его вещей
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> findAllUserItems(
+            @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Просмотр владельцем списка всех его вещей");
+        return itemClient.findAllUserItems(userId, from, size);
+    }
+
+    // Поиск вещи по имени или описанию
+    @GetMapping("/search")
+    public Mono<ResponseEntity<byte[]>> findItemsByNameOrDescription(
+            @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId,
+            @RequestParam String text,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Поиск вещи по тексту: {}", text);
+        return itemClient.findItemsByNameOrDescription(userId, text, from, size);
+    }
+
+    // Редактирование вещи
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<byte[]>> updateItem(
+            @RequestBody ItemDto itemDto,
+            @PathVariable Long itemId,
+            @RequestHeader(value = HEADER_NAME_CONTAINS_OWNER_ID, required = false) Long userId) {
+        itemDto.setId(itemId);
+        log.info("Обновление предмета {}", itemDto);
+        return itemClient.updateItem(itemDto, userId);
+    }
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CONTAINS_OWNER_ID;
+
+// Ограничение частоты запросов каждого пользователя отдельно для каждого класса эндпоинтов,
+// чтобы один клиент не мог занять весь пул соединений к серверу
+@Slf4j
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "shareit.rate-limit", name = "enabled", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ENDPOINT_CLASS = "default";
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<EndpointClass> endpointClasses = new ArrayList<>();
+    private final EndpointClass defaultEndpointClass;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+    private final long idleNanos;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry registry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.idleNanos = properties.getIdleTimeout().toNanos();
+
+        for (Map.Entry<String, RateLimitProperties.Limit> entry : properties.getEndpoints().entrySet()) {
+            endpointClasses.add(new EndpointClass(entry.getKey(), entry.getValue(), registry));
+        }
+
+        defaultEndpointClass = new EndpointClass(DEFAULT_ENDPOINT_CLASS, properties.getDefaults(), registry);
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Map::size)
+                .description("Token buckets currently held for users")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request).startsWith(ACTUATOR_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = tryAcquire(
+                resolveClient(request.getHeader(HEADER_NAME_CONTAINS_OWNER_ID), request.getRemoteAddr()),
+                UrlPathHelper.defaultInstance.getPathWithinApplication(request)
+        );
+
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Берёт токен из корзины клиента для класса эндпоинтов, к которому относится путь.
+    // Возвращает 0, если запрос можно выполнять, иначе сколько наносекунд ждать следующего токена.
+    // Подзапросы пакета не проходят через фильтры, поэтому BatchDispatcher вызывает проверку сам
+    // Путь должен быть декодирован и очищен от ;-параметров и повторных "/", как при выборе контроллера
+    public long tryAcquire(String client, String path) {
+        long now = System.nanoTime();
+        EndpointClass endpointClass = resolveEndpointClass(path);
+        TokenBucket bucket = buckets.computeIfAbsent(
+                client + "|" + endpointClass.name,
+                key -> new TokenBucket(endpointClass.limit.getCapacity(), endpointClass.limit.getRefillPerSecond(), now)
+        );
+        long waitNanos = bucket.tryAcquire(now);
+
+        evictIdleBuckets(now);
+
+        if (waitNanos > 0) {
+            endpointClass.throttled.increment();
+            log.debug("Превышен лимит запросов класса {} клиентом {}", endpointClass.name, client);
+        } else {
+            endpointClass.allowed.increment();
+        }
+        return waitNanos;
+    }
+
+    // Запросы без идентификатора пользователя ограничиваются по адресу клиента
+    public static String resolveClient(@Nullable String userId, String remoteAddr) {
+        return userId != null ? "user:" + userId : "ip:" + remoteAddr;
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (long) Math.ceil((double) waitNanos / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    public static ErrorResponse tooManyRequests(long retryAfterSeconds) {
+        return new ErrorResponse("Слишком много запросов!", "Повторите запрос через " + retryAfterSeconds + " с");
+    }
+
+    // Завершающий "/" отбрасывается: контроллеры принимают /items/search/ так же, как /items/search
+    private EndpointClass resolveEndpointClass(String path) {
+        String withoutTrailingSlash = path.length() > 1 && path.endsWith("/")
+                ? path.substring(0, path.length() - 1)
+                : path;
+
+        for (EndpointClass endpointClass : endpointClasses) {
+            for (String pattern : endpointClass.limit.getPaths()) {
+                if (pathMatcher.match(pattern, withoutTrailingSlash)) {
+                    return endpointClass;
+                }
+            }
+        }
+        return defaultEndpointClass;
+    }
+
+    // Не чаще раза за idleTimeout один из потоков удаляет корзины простаивающих пользователей
+    private void evictIdleBuckets(long now) {
+        long last = lastEviction.get();
+
+        if (now - last > idleNanos && lastEviction.compareAndSet(last, now)) {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), tooManyRequests(retryAfterSeconds));
+    }
+
+    private static class EndpointClass {
+
+        private final String name;
+        private final RateLimitProperties.Limit limit;
+        private final Counter allowed;
+        private final Counter throttled;
+
+        private EndpointClass(String name, RateLimitProperties.Limit limit, MeterRegistry registry) {
+            this.name = name;
+            this.limit = limit;
+            this.allowed = requestCounter(registry, name, "allowed");
+            this.throttled = requestCounter(registry, name, "throttled");
+        }
+
+        private static Counter requestCounter(MeterRegistry registry, String endpointClass, String result) {
+            return Counter.builder("gateway.ratelimit.requests")
+                    .description("Requests checked against per-user rate limits")
+                    .tag("endpoint", endpointClass)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+}
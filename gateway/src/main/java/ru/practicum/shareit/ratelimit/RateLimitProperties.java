@@ -0,0 +1,42 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Корзина пользователя, к которой не обращались дольше этого, удаляется
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // Лимит для запросов, не попавших ни в один класс из endpoints
+    private Limit defaults = new Limit();
+
+    // Классы эндпоинтов с отдельными лимитами, проверяются в порядке объявления
+    private Map<String, Limit> endpoints = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        // Шаблоны путей в формате AntPathMatcher
+        private List<String> paths = new ArrayList<>();
+
+        // Размер корзины: сколько запросов можно сделать подряд
+        private int capacity = 100;
+
+        // Скорость пополнения корзины: сколько запросов в секунду доступно в среднем
+        private double refillPerSecond = 50;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Корзина токенов без блокировок: состояние заменяется целиком через compareAndSet
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    // Возвращает 0, если токен получен, иначе сколько наносекунд ждать следующего токена
+    long tryAcquire(long now) {
+        while (true) {
+            State current = state.get();
+            // Поток с более ранним now не сдвигает время назад, иначе следующий вызов пополнит корзину повторно
+            long updatedAt = Math.max(now, current.updatedAt);
+            double tokens = Math.min(capacity, current.tokens + (updatedAt - current.updatedAt) * tokensPerNano);
+            boolean acquired = tokens >= 1;
+            State next = new State(acquired ? tokens - 1 : tokens, updatedAt);
+
+            if (state.compareAndSet(current, next)) {
+                return acquired ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+        }
+    }
+
+    boolean isIdle(long now, long idleNanos) {
+        return now - state.get().updatedAt > idleNanos;
+    }
+
+    private static class State {
+
+        private final double tokens;
+        private final long updatedAt;
+
+        private State(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
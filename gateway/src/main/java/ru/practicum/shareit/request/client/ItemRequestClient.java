@@ -1,49 +1,70 @@
 package ru.practicum.shareit.request.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.DownstreamGuards;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.PagePrefetcher;
+import ru.practicum.shareit.client.ServerInstances;
+import ru.practicum.shareit.client.WireFormatConverter;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(
+            ServerInstances servers,
+            RestTemplateBuilder builder,
+            HttpComponentsClientHttpRequestFactory requestFactory,
+            DownstreamGuards guards,
+            GatewayResponseCache responseCache,
+            InFlightRequests inFlightRequests,
+            WireFormatConverter wireFormat,
+            PagePrefetcher prefetcher) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                servers,
+                guards.forClient(API_PREFIX),
+                responseCache,
+                inFlightRequests,
+                wireFormat,
+                prefetcher
         );
     }
 
-    public ResponseEntity<Object> createRequest(Long userId, ItemRequestShortDto itemRequestShortDto) {
+    public ResponseEntity<byte[]> createRequest(Long userId, ItemRequestShortDto itemRequestShortDto) {
         return post("", userId, itemRequestShortDto);
     }
 
-    public ResponseEntity<Object> findUserRequests(Long userId) {
+    public ResponseEntity<byte[]> findUserRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findAllRequests(Integer from, Integer size, Long userId) {
+    public ResponseEntity<byte[]> findAllRequests(Integer from, Integer size, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return getPage("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findRequestById(Long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public ResponseEntity<byte[]> findRequestById(Long requestId, Long userId) {
+        return getCached("/" + requestId, userId);
     }
 }
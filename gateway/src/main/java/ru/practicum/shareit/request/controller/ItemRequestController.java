@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -18,23 +19,23 @@ import javax.validation.constraints.PositiveOrZero;
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(path = "/requests")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemRequestController {
 
     private final ItemRequestClient itemRequestClient;
 
     // Создание нового запроса вещи
     @PostMapping
-    public ResponseEntity<Object> createRequest(
+    public ResponseEntity<byte[]> createRequest(
             @RequestHeader(value = ItemController.HEADER_NAME_CONTAINS_OWNER_ID) Long userId,
             @Validated({Create.class}) @RequestBody ItemRequestShortDto itemRequestShortDto) {
-        ResponseEntity<Object> itemRequestDto = itemRequestClient.createRequest(userId, itemRequestShortDto);
-        log.info("Создание запроса {}", itemRequestDto);
-        return itemRequestDto;
+        log.info("Создание запроса {} пользователем с id={}", itemRequestShortDto, userId);
+        return itemRequestClient.createRequest(userId, itemRequestShortDto);
     }
 
     // Получение списка своих запросов вместе с данными об ответах на них
     @GetMapping
-    public ResponseEntity<Object> findUserRequests(
+    public ResponseEntity<byte[]> findUserRequests(
             @RequestHeader(value = ItemController.HEADER_NAME_CONTAINS_OWNER_ID) Long userId) {
         log.info("Получение пользователем c id={} списка своих запросов", userId);
         return itemRequestClient.findUserRequests(userId);
@@ -42,7 +43,7 @@ public class ItemRequestController {
 
     // Получение списка запросов, созданных другими пользователями
     @GetMapping("/all")
-    public ResponseEntity<Object> findAllRequests(
+    public ResponseEntity<byte[]> findAllRequests(
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
             @Positive @RequestParam(defaultValue = "10") Integer size,
             @RequestHeader(value = ItemController.HEADER_NAME_CONTAINS_OWNER_ID) Long userId) {
@@ -52,7 +53,7 @@ public class ItemRequestController {
 
     // Получение данных об одном конкретном запросе вместе с данными об ответах на него
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findRequestById(
+    public ResponseEntity<byte[]> findRequestById(
             @PathVariable Long requestId,
             @RequestHeader(value = ItemController.HEADER_NAME_CONTAINS_OWNER_ID) Long userId) {
         log.info("Получение данных запроса с id={}", requestId);
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.request.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.request.client.ReactiveItemRequestClient;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.utility.marker.Create;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/requests")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemRequestController {
+
+    private final ReactiveItemRequestClient itemRequestClient;
+
+    // Создание нового запроса вещи
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createRequest(
+            @RequestHeader(value = ItemController.HEADER_NAME_CONTAINS_OWNER_ID) Long userId,
+            @Validated({Create.class}) @RequestBody ItemRequestShortDto itemRequestShortDto) {
+        log.info("Создание запроса {} пользователем с id={}", itemRequestShortDto, userId);
+        return itemRequestClient.createRequest(userId, itemRequestShortDto);
+    }
+
+    // Получение списка своих запросов вместе с данными об ответах на них
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> findUserRequests(
+            @RequestHeader(value = ItemController.HEADER_NAME_CONTAINS_OWNER_ID) Long userId) {
+        log.info("Получение пользователем c id={} списка своих запросов", userId);
+        return itemRequestClient.findUserRequests(userId);
+    }
+
+    // Получение списка запросов, созданных другими пользователями
+    @GetMapping("/all")
+    public Mono<ResponseEntity<byte[]>> findAllRequests(
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size,
+            @RequestHeader(value = ItemController.HEADER_NAME_CONTAINS_OWNER_ID) Long userId) {
+        log.info("Получение списка запросов других пользователей");
+        return itemRequestClient.findAllRequests(from, size, userId);
+    }
+
+    // Получение данных об одном конкретном запросе вместе с данными об ответах на него
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<byte[]>> findRequestById(
+            @PathVariable Long requestId,
+            @RequestHeader(value = ItemController.HEADER_NAME_CONTAINS_OWNER_ID) Long userId) {
+        log.info("Получение данных запроса с id={}", requestId);
+        return itemRequestClient.findRequestById(requestId, userId);
+    }
+}
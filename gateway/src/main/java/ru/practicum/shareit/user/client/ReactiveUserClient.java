@@ -0,0 +1,43 @@
+package ru.practicum.shareit.user.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient extends ReactiveBaseClient {
+
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<byte[]>> createUser(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findUserById(Long userId) {
+        return get("/" + userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findAllUsers() {
+        return get("");
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateUser(UserDto userDto) {
+        return patch("/" + userDto.getId(), userDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> deleteUser(Long userId) {
+        return delete("/" + userId);
+    }
+}
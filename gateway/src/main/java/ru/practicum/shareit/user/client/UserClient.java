@@ -1,43 +1,62 @@
 package ru.practicum.shareit.user.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.DownstreamGuards;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerInstances;
+import ru.practicum.shareit.client.WireFormatConverter;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(
+            ServerInstances servers,
+            RestTemplateBuilder builder,
+            HttpComponentsClientHttpRequestFactory requestFactory,
+            DownstreamGuards guards,
+            GatewayResponseCache responseCache,
+            InFlightRequests inFlightRequests,
+            WireFormatConverter wireFormat) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                servers,
+                guards.forClient(API_PREFIX),
+                responseCache,
+                inFlightRequests,
+                wireFormat,
+                null
         );
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public ResponseEntity<byte[]> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> findUserById(Long userId) {
-        return get("/" + userId);
+    public ResponseEntity<byte[]> findUserById(Long userId) {
+        return getCached("/" + userId, null);
     }
 
-    public ResponseEntity<Object> findAllUsers() {
+    public ResponseEntity<byte[]> findAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> updateUser(UserDto userDto) {
+    public ResponseEntity<byte[]> updateUser(UserDto userDto) {
         return patch("/" + userDto.getId(), userDto);
     }
 
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.user.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.client.ReactiveUserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utility.marker.Create;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveUserClient userClient;
+
+    // Добавление нового пользователя
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createUser(@Validated({Create.class}) @RequestBody UserDto userDto) {
+        log.info("Создание пользователя {}", userDto);
+        return userClient.createUser(userDto);
+    }
+
+    // Получение пользователя по идентификатору
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<byte[]>> findUserById(@PathVariable Long userId) {
+        log.info("Получение данных пользователя с id={}", userId);
+        return userClient.findUserById(userId);
+    }
+
+    // Получение списка всех пользователей
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> findAllUsers() {
+        log.info("Получение списка всех пользователей");
+        return userClient.findAllUsers();
+    }
+
+    // Изменение пользователя
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<byte[]>> updateUser(@RequestBody UserDto userDto, @PathVariable Long userId) {
+        userDto.setId(userId);
+        log.info("Обновление пользователя {}", userDto);
+        return userClient.updateUser(userDto);
+    }
+
+    // Удаление пользователя
+    @DeleteMapping("/{userId}")
+    public Mono<Void> deleteUser(@PathVariable Long userId) {
+        log.info("Удаление пользователя с id={}", userId);
+        return userClient.deleteUser(userId).then();
+    }
+}
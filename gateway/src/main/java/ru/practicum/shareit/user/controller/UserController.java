@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -13,39 +14,38 @@ import ru.practicum.shareit.utility.marker.Create;
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
 
     private final UserClient userClient;
 
     // Добавление нового пользователя
     @PostMapping
-    public ResponseEntity<Object> createUser(@Validated({Create.class}) @RequestBody UserDto userDto) {
-        ResponseEntity<Object> newUserDto = userClient.createUser(userDto);
-        log.info("Создание пользователя {}", newUserDto);
-        return newUserDto;
+    public ResponseEntity<byte[]> createUser(@Validated({Create.class}) @RequestBody UserDto userDto) {
+        log.info("Создание пользователя {}", userDto);
+        return userClient.createUser(userDto);
     }
 
     // Получение пользователя по идентификатору
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> findUserById(@PathVariable Long userId) {
+    public ResponseEntity<byte[]> findUserById(@PathVariable Long userId) {
         log.info("Получение данных пользователя с id={}", userId);
         return userClient.findUserById(userId);
     }
 
     // Получение списка всех пользователей
     @GetMapping
-    public ResponseEntity<Object> findAllUsers() {
+    public ResponseEntity<byte[]> findAllUsers() {
         log.info("Получение списка всех пользователей");
         return userClient.findAllUsers();
     }
 
     // Изменение пользователя
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@RequestBody UserDto userDto, @PathVariable Long userId) {
+    public ResponseEntity<byte[]> updateUser(@RequestBody UserDto userDto, @PathVariable Long userId) {
         userDto.setId(userId);
-        ResponseEntity<Object> newUserDto = userClient.updateUser(userDto);
-        log.info("Обновление пользователя {}", newUserDto);
-        return newUserDto;
+        log.info("Обновление пользователя {}", userDto);
+        return userClient.updateUser(userDto);
     }
 
     // Удаление пользователя
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.batch.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.batch.dispatch.BatchConfig;
+import ru.practicum.shareit.batch.dispatch.BatchDispatcher;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.request.client.ItemRequestClient;
+import ru.practicum.shareit.request.controller.ItemRequestController;
+import ru.practicum.shareit.user.client.UserClient;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CONTAINS_OWNER_ID;
+
+@WebMvcTest(controllers = BatchController.class, properties = {
+        "shareit.rate-limit.endpoints.search.paths=/items/search",
+        "shareit.rate-limit.endpoints.search.capacity=2",
+        "shareit.rate-limit.endpoints.search.refill-per-second=0.001"
+})
+@AutoConfigureMockMvc
+@Import({BatchDispatcher.class, BatchConfig.class, SimpleMeterRegistry.class,
+        UserController.class, ItemController.class, BookingController.class, ItemRequestController.class})
+class BatchControllerTest {
+
+    private final Long userId = 1L;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @MockBean
+    private BookingClient bookingClient;
+
+    @MockBean
+    private ItemRequestClient itemRequestClient;
+
+    @Test
+    void executeBatch_shouldReturnResponsesInRequestOrder() throws Exception {
+        // Первый подзапрос выполняется дольше остальных, но его ответ всё равно первый
+        when(userClient.findUserById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return json(HttpStatus.OK, "{\"id\":1}");
+        });
+        when(userClient.findUserById(2L)).thenReturn(json(HttpStatus.OK, "{\"id\":2}"));
+        when(itemClient.findItemById(3L, userId)).thenReturn(json(HttpStatus.OK, "{\"id\":3}"));
+
+        executeBatch(
+                subRequest("first", HttpMethod.GET, "/users/1", null),
+                subRequest("second", HttpMethod.GET, "/users/2", null),
+                subRequest("third", HttpMethod.GET, "/items/3", null)
+        )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses.length()").value(3))
+                .andExpect(jsonPath("$.responses[0].id").value("first"))
+                .andExpect(jsonPath("$.responses[0].body.id").value(1))
+                .andExpect(jsonPath("$.responses[1].id").value("second"))
+                .andExpect(jsonPath("$.responses[1].body.id").value(2))
+                .andExpect(jsonPath("$.responses[2].id").value("third"))
+                .andExpect(jsonPath("$.responses[2].body.id").value(3));
+    }
+
+    @Test
+    void executeBatch_shouldReturnStatusOfEachSubRequest() throws Exception {
+        when(userClient.createUser(any(UserDto.class))).thenReturn(json(HttpStatus.OK, "{\"id\":5}"));
+        when(bookingClient.getBooking(userId, 7L)).thenReturn(json(HttpStatus.NOT_FOUND,
+                "{\"error\":\"Сущность не найдена!\",\"description\":\"Бронирование не найдено\"}"));
+
+        executeBatch(
+                subRequest("create", HttpMethod.POST, "/users",
+                        mapper.valueToTree(new UserDto(null, "user", "user@mail.ru"))),
+                subRequest("missing", HttpMethod.GET, "/bookings/7", null),
+                subRequest("delete", HttpMethod.DELETE, "/users/5", null),
+                subRequest("unknown", HttpMethod.GET, "/users/5/items", null),
+                subRequest("method", HttpMethod.DELETE, "/items/5", null)
+        )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[0].status").value(200))
+                .andExpect(jsonPath("$.responses[0].body.id").value(5))
+                .andExpect(jsonPath("$.responses[1].status").value(404))
+                .andExpect(jsonPath("$.responses[1].body.error").value("Сущность не найдена!"))
+                .andExpect(jsonPath("$.responses[2].status").value(200))
+                .andExpect(jsonPath("$.responses[3].status").value(404))
+                .andExpect(jsonPath("$.responses[4].status").value(405));
+
+        verify(userClient, times(1)).deleteUser(5L);
+    }
+
+    // Ошибочный подзапрос получает тот же статус и то же тело ответа, что и такой же отдельный запрос
+    @Test
+    void executeBatch_shouldRejectSubRequestsLikeDirectRequests() throws Exception {
+        List<BatchRequestDto.SubRequest> subRequests = List.of(
+                subRequest("no-email", HttpMethod.POST, "/users", mapper.valueToTree(new UserDto(null, "user", null))),
+                subRequest("no-body", HttpMethod.POST, "/bookings", null),
+                subRequest("negative-from", HttpMethod.GET, "/bookings?from=-1&size=0", null),
+                subRequest("unknown-state", HttpMethod.GET, "/bookings?state=UNKNOWN", null),
+                subRequest("bad-id", HttpMethod.GET, "/users/abc", null),
+                subRequest("no-approved", HttpMethod.PATCH, "/bookings/1", null),
+                subRequest("bad-approved", HttpMethod.PATCH, "/bookings/1?approved=maybe", null),
+                new BatchRequestDto.SubRequest("bad-user", HttpMethod.GET, "/bookings/1",
+                        Map.of(HEADER_NAME_CONTAINS_OWNER_ID, "user"), null)
+        );
+
+        JsonNode responses = mapper.readTree(executeBatch(subRequests.toArray(BatchRequestDto.SubRequest[]::new))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray())
+                .get("responses");
+
+        for (int i = 0; i < subRequests.size(); i++) {
+            BatchRequestDto.SubRequest subRequest = subRequests.get(i);
+            MockHttpServletResponse direct = mockMvc.perform(request(subRequest.getMethod(), subRequest.getPath())
+                            .header(HEADER_NAME_CONTAINS_OWNER_ID, subRequest.getHeaders() != null
+                                    ? subRequest.getHeaders().get(HEADER_NAME_CONTAINS_OWNER_ID) : userId)
+                            .content(subRequest.getBody() != null ? mapper.writeValueAsString(subRequest.getBody()) : "")
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andReturn().getResponse();
+
+            assertEquals(400, direct.getStatus(), subRequest.getId());
+            assertEquals(direct.getStatus(), responses.get(i).get("status").asInt(), subRequest.getId());
+            assertEquals(mapper.readTree(direct.getContentAsByteArray()), responses.get(i).get("body"), subRequest.getId());
+        }
+
+        verifyNoInteractions(userClient, itemClient, bookingClient, itemRequestClient);
+    }
+
+    @Test
+    void executeBatch_shouldRateLimitEachSubRequest() throws Exception {
+        when(itemClient.findItemsByNameOrDescription(eq(userId), anyString(), anyInt(), anyInt()))
+                .thenReturn(json(HttpStatus.OK, "[]"));
+
+        String search = "/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C";
+
+        executeBatch(
+                subRequest("1", HttpMethod.GET, search, null),
+                subRequest("2", HttpMethod.GET, search, null),
+                subRequest("3", HttpMethod.GET, search, null)
+        )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[*].status", containsInAnyOrder(200, 200, 429)))
+                .andExpect(jsonPath("$.responses[?(@.status == 429)].headers.Retry-After").exists());
+
+        verify(itemClient, times(2)).findItemsByNameOrDescription(userId, "дрель", 0, 10);
+    }
+
+    private ResultActions executeBatch(BatchRequestDto.SubRequest... subRequests) throws Exception {
+        return mockMvc.perform(post("/batch")
+                .header(HEADER_NAME_CONTAINS_OWNER_ID, userId)
+                .content(mapper.writeValueAsString(new BatchRequestDto(List.of(subRequests))))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private static BatchRequestDto.SubRequest subRequest(
+            String id, HttpMethod method, String path, JsonNode body) {
+        return new BatchRequestDto.SubRequest(id, method, path, null, body);
+    }
+
+    private static ResponseEntity<byte[]> json(HttpStatus status, String body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import javax.servlet.http.Cookie;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private final MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+    private BaseClient client;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/users"));
+        client = new BaseClient(rest);
+        server = MockRestServiceServer.bindTo(rest).build();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void get_shouldForwardWriteMarkerOfClient() {
+        clientRequest.setCookies(new Cookie(BaseClient.LAST_WRITE_COOKIE, "1700000000000"));
+        server.expect(requestTo("http://server/users/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.COOKIE, BaseClient.LAST_WRITE_COOKIE + "=1700000000000"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        client.get("/1", 1L);
+
+        server.verify();
+    }
+
+    @Test
+    void get_shouldNotSendCookiesWithoutWriteMarker() {
+        clientRequest.setCookies(new Cookie("session", "secret"));
+        server.expect(requestTo("http://server/users/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.COOKIE))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        client.get("/1", 1L);
+
+        server.verify();
+    }
+
+    // GET, пришедший во время записи, получает старые данные; после ответа на запись они не отдаются из кэша
+    @Test
+    void getCached_shouldNotServeResponseCachedDuringWrite() {
+        RestTemplate rest = restTemplate("http://server/users");
+        MockRestServiceServer users = MockRestServiceServer.bindTo(rest).build();
+        BaseClient cachedClient = cachedClient(rest, new GatewayResponseCache(100, Duration.ofMinutes(1), Duration.ofMinutes(10)));
+
+        users.expect(once(), requestTo("http://server/users/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(request -> {
+                    cachedClient.getCached("/1", null);
+                    return withSuccess("{\"name\": \"new\"}", MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        users.expect(once(), requestTo("http://server/users/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"name\": \"old\"}", MediaType.APPLICATION_JSON).headers(eTag("\"1\"")));
+        users.expect(once(), requestTo("http://server/users/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"name\": \"new\"}", MediaType.APPLICATION_JSON).headers(eTag("\"2\"")));
+
+        cachedClient.patch("/1", "{\"name\": \"new\"}");
+
+        assertArrayEquals("{\"name\": \"new\"}".getBytes(), cachedClient.getCached("/1", null).getBody());
+        users.verify();
+    }
+
+    @Test
+    void post_shouldInvalidateCachedResponsesOfDependentResource() {
+        GatewayResponseCache responseCache = new GatewayResponseCache(100, Duration.ofMinutes(1), Duration.ofMinutes(10));
+        RestTemplate itemsRest = restTemplate("http://server/items");
+        RestTemplate bookingsRest = restTemplate("http://server/bookings");
+        MockRestServiceServer items = MockRestServiceServer.bindTo(itemsRest).build();
+        MockRestServiceServer bookings = MockRestServiceServer.bindTo(bookingsRest).build();
+        BaseClient itemClient = cachedClient(itemsRest, responseCache);
+        BaseClient bookingClient = cachedClient(bookingsRest, responseCache);
+
+        items.expect(once(), requestTo("http://server/items/1"))
+                .andRespond(withSuccess("{\"nextBooking\": null}", MediaType.APPLICATION_JSON).headers(eTag("\"1\"")));
+        bookings.expect(once(), requestTo("http://server/bookings"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        items.expect(once(), requestTo("http://server/items/1"))
+                .andRespond(withSuccess("{\"nextBooking\": {}}", MediaType.APPLICATION_JSON).headers(eTag("\"2\"")));
+
+        itemClient.getCached("/1", 1L);
+        bookingClient.post("", 2L, "{\"itemId\": 1}");
+
+        assertArrayEquals("{\"nextBooking\": {}}".getBytes(), itemClient.getCached("/1", 1L).getBody());
+        items.verify();
+        bookings.verify();
+    }
+
+    private static RestTemplate restTemplate(String rootUri) {
+        RestTemplate rest = new RestTemplate();
+
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(rootUri));
+        return rest;
+    }
+
+    private static BaseClient cachedClient(RestTemplate rest, GatewayResponseCache responseCache) {
+        return new BaseClient(rest, null, null, responseCache, null, null, null);
+    }
+
+    private static HttpHeaders eTag(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+
+        headers.setETag(eTag);
+        return headers;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private RequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        hedger = new RequestHedger(0.95, Duration.ofMillis(50), executor, timer);
+
+        for (int i = 0; i < 128; i++) {
+            hedger.recordLatency(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    @Test
+    void execute_shouldRunFirstAttemptOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        Map<Integer, Thread> threads = new ConcurrentHashMap<>();
+        AtomicInteger attempts = new AtomicInteger();
+
+        ResponseEntity<byte[]> response = hedger.execute(() -> {
+            threads.put(attempts.incrementAndGet(), Thread.currentThread());
+            return ResponseEntity.ok().build();
+        });
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(Map.of(1, caller), threads);
+        assertEquals(0, hedger.getHedgedRequests());
+    }
+
+    // Первая попытка висит, вторая отвечает: запрос первой прерывается, и поток запроса сразу получает ответ
+    @Test
+    void execute_shouldAbortSlowFirstAttemptWhenHedgeWins() {
+        HttpGet firstRequest = new HttpGet("http://server/items/1");
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+
+        ResponseEntity<byte[]> response = hedger.execute(() -> attempts.incrementAndGet() == 1
+                ? waitUntilAborted(firstRequest)
+                : ResponseEntity.accepted().build());
+
+        assertEquals(202, response.getStatusCodeValue());
+        assertTrue(firstRequest.isAborted());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(1, hedger.getHedgedRequests());
+        assertEquals(1, hedger.getHedgeWins());
+    }
+
+    // Первая попытка отвечает, пока висит вторая: запрос второй прерывается, а не ждёт таймаута чтения
+    @Test
+    void execute_shouldAbortHedgeWhenFirstAttemptWins() throws InterruptedException {
+        HttpGet hedgeRequest = new HttpGet("http://server/items/1");
+        AtomicInteger attempts = new AtomicInteger();
+
+        ResponseEntity<byte[]> response = hedger.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                waitFor(() -> attempts.get() == 2);
+                return ResponseEntity.ok().build();
+            }
+            return waitUntilAborted(hedgeRequest);
+        });
+
+        waitFor(hedgeRequest::isAborted);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertTrue(hedgeRequest.isAborted());
+        assertEquals(1, hedger.getHedgedRequests());
+        assertEquals(0, hedger.getHedgeWins());
+    }
+
+    // Так ведёт себя запрос к серверу в попытке: фабрика регистрирует его, а прерванный запрос завершается ошибкой
+    private static ResponseEntity<byte[]> waitUntilAborted(HttpGet request) {
+        HedgeAttempt.register(request);
+        waitFor(request::isAborted);
+        assertTrue(HedgeAttempt.isCurrentCancelled());
+        throw new ResourceAccessException("Request aborted");
+    }
+
+    private static void waitFor(Supplier<Boolean> condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!condition.get() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerInstancesTest {
+
+    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+    }
+
+    @Test
+    void healthChecks_shouldRunOnlyBetweenStartAndStop() throws InterruptedException {
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+
+        // Экземпляр не отвечает: после первой проверки он помечается недоступным
+        properties.setHealthCheckInterval(Duration.ofMillis(10));
+        ServerInstances servers = new ServerInstances(List.of("http://localhost:1"), properties, httpClient);
+        ServerInstance instance = servers.choose(null);
+
+        Thread.sleep(100);
+        assertFalse(servers.isRunning());
+        assertTrue(instance.isHealthy());
+
+        servers.start();
+        assertTrue(servers.isRunning());
+        waitUntilUnhealthy(instance);
+
+        servers.stop();
+        assertFalse(servers.isRunning());
+    }
+
+    private static void waitUntilUnhealthy(ServerInstance instance) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+
+        while (instance.isHealthy() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(instance.isHealthy());
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.client.ReactiveBookingClient;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.controller.ReactiveBookingController;
+import ru.practicum.shareit.user.client.ReactiveUserClient;
+import ru.practicum.shareit.user.client.UserClient;
+import ru.practicum.shareit.user.controller.ReactiveUserController;
+import ru.practicum.shareit.user.controller.UserController;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CONTAINS_OWNER_ID;
+
+// Одни и те же ошибочные запросы к servlet-контроллерам (MVC) и к реактивным (WebFlux)
+// должны получать одинаковые статусы и тела ответов ErrorHandler
+class ErrorHandlerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final UserClient userClient = mock(UserClient.class);
+    private final ReactiveUserClient reactiveUserClient = mock(ReactiveUserClient.class);
+    private WebTestClient servlet;
+    private WebTestClient reactive;
+
+    @BeforeEach
+    void setUp() {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+
+        validator.afterPropertiesSet();
+        servlet = MockMvcWebTestClient.bindToController(
+                        new UserController(userClient),
+                        validated(new BookingController(mock(BookingClient.class))))
+                .controllerAdvice(new ErrorHandler())
+                .validator(validator)
+                .build();
+        reactive = WebTestClient.bindToController(
+                        new ReactiveUserController(reactiveUserClient),
+                        validated(new ReactiveBookingController(mock(ReactiveBookingClient.class))))
+                .controllerAdvice(new ErrorHandler())
+                .validator(validator)
+                .build();
+    }
+
+    @Test
+    void invalidBody_shouldGetSameErrorInBothModes() throws IOException {
+        assertSameError(400, client -> client.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"user\", \"email\": \"not-an-email\"}"));
+        assertSameError(400, client -> client.post().uri("/bookings")
+                .header(HEADER_NAME_CONTAINS_OWNER_ID, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(booking(LocalDateTime.now().plusDays(1), LocalDateTime.now().minusDays(1))));
+    }
+
+    @Test
+    void unreadableBody_shouldGetSameErrorInBothModes() throws IOException {
+        assertSameError(400, client -> client.post().uri("/bookings")
+                .header(HEADER_NAME_CONTAINS_OWNER_ID, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{"));
+    }
+
+    @Test
+    void missingHeader_shouldGetSameErrorInBothModes() throws IOException {
+        assertSameError(400, client -> client.post().uri("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(booking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2))));
+    }
+
+    @Test
+    void missingParameter_shouldGetSameErrorInBothModes() throws IOException {
+        assertSameError(400, client -> client.patch().uri("/bookings/1")
+                .header(HEADER_NAME_CONTAINS_OWNER_ID, "1"));
+    }
+
+    @Test
+    void wrongType_shouldGetSameErrorInBothModes() throws IOException {
+        assertSameError(400, client -> client.get().uri("/bookings/abc")
+                .header(HEADER_NAME_CONTAINS_OWNER_ID, "1"));
+        assertSameError(400, client -> client.get().uri("/bookings/1")
+                .header(HEADER_NAME_CONTAINS_OWNER_ID, "user"));
+    }
+
+    @Test
+    void constraintViolation_shouldGetSameErrorInBothModes() throws IOException {
+        assertSameError(400, client -> client.get().uri("/bookings?from=-1&size=0")
+                .header(HEADER_NAME_CONTAINS_OWNER_ID, "1"));
+    }
+
+    @Test
+    void unknownState_shouldGetSameErrorInBothModes() throws IOException {
+        assertSameError(400, client -> client.get().uri("/bookings?state=FUTURISTIC")
+                .header(HEADER_NAME_CONTAINS_OWNER_ID, "1"));
+    }
+
+    // Описание содержит текст ошибки соединения, поэтому сравниваются статус и вид ошибки
+    @Test
+    void unavailableServer_shouldGetServiceUnavailableInBothModes() throws IOException {
+        when(userClient.findUserById(anyLong()))
+                .thenThrow(new ServerUnavailableException("Сервер не ответил на запрос к /users"));
+        when(reactiveUserClient.findUserById(anyLong())).thenReturn(Mono.error(new WebClientRequestException(
+                new ConnectException("Connection refused"), HttpMethod.GET, URI.create("http://localhost:9090/users/1"),
+                HttpHeaders.EMPTY)));
+
+        JsonNode servletError = exchange(servlet, 503, client -> client.get().uri("/users/1"));
+        JsonNode reactiveError = exchange(reactive, 503, client -> client.get().uri("/users/1"));
+
+        assertEquals(servletError.get("error"), reactiveError.get("error"));
+    }
+
+    private void assertSameError(int status, Function<WebTestClient, WebTestClient.RequestHeadersSpec<?>> request)
+            throws IOException {
+        assertEquals(exchange(servlet, status, request), exchange(reactive, status, request));
+    }
+
+    private JsonNode exchange(WebTestClient client, int status,
+                              Function<WebTestClient, WebTestClient.RequestHeadersSpec<?>> request) throws IOException {
+        EntityExchangeResult<byte[]> result = request.apply(client).exchange()
+                .expectStatus().isEqualTo(status)
+                .expectBody()
+                .returnResult();
+
+        return mapper.readTree(result.getResponseBody());
+    }
+
+    private static String booking(LocalDateTime start, LocalDateTime end) {
+        return "{\"itemId\": 1, \"start\": \"" + start.withNano(0) + "\", \"end\": \"" + end.withNano(0) + "\"}";
+    }
+
+    // Проверка параметров по @Validated на классе контроллера, как это делает MethodValidationPostProcessor
+    @SuppressWarnings("unchecked")
+    private static <T> T validated(T controller) {
+        ProxyFactory proxyFactory = new ProxyFactory(controller);
+
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new MethodValidationInterceptor());
+        return (T) proxyFactory.getProxy();
+    }
+}
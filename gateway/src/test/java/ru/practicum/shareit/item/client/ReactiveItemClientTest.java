@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Страницы в реактивном режиме запрашиваются у сервера с теми же from и size, что и в servlet-режиме
+class ReactiveItemClientTest {
+
+    private final List<URI> requested = new ArrayList<>();
+    private ReactiveItemClient client;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requested.add(request.url());
+            return Mono.just(ClientResponse.create(HttpStatus.OK).body("[]").build());
+        });
+
+        client = new ReactiveItemClient("http://server", builder);
+    }
+
+    @Test
+    void findAllUserItems_shouldPassPage() {
+        client.findAllUserItems(1L, 20, 10).block();
+
+        assertEquals(URI.create("http://server/items?from=20&size=10"), requested.get(0));
+    }
+
+    @Test
+    void findItemsByNameOrDescription_shouldPassPage() {
+        client.findItemsByNameOrDescription(1L, "drill", 5, 3).block();
+
+        assertEquals(URI.create("http://server/items/search?text=drill&from=5&size=3"), requested.get(0));
+    }
+}
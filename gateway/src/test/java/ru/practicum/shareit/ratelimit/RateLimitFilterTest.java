@@ -0,0 +1,75 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.item.controller.ItemController.HEADER_NAME_CONTAINS_OWNER_ID;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit search = new RateLimitProperties.Limit();
+
+        search.setPaths(List.of("/items/search"));
+        search.setCapacity(1);
+        search.setRefillPerSecond(0.001);
+        properties.setEndpoints(Map.of("search", search));
+        filter = new RateLimitFilter(properties, registry, new ObjectMapper());
+    }
+
+    // Варианты пути, которые контроллер принимает как /items/search, расходуют ту же корзину
+    @Test
+    void doFilter_shouldLimitSearchUnderEquivalentPaths() throws ServletException, IOException {
+        assertEquals(HttpStatus.OK.value(), search("/items/search"));
+
+        for (String path : List.of("/items//search", "/items;x=1/search", "/items/%73earch", "/items/search/")) {
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), search(path), path);
+        }
+
+        assertEquals(5, registry.get("gateway.ratelimit.requests").tag("endpoint", "search").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum());
+    }
+
+    @Test
+    void tryAcquire_shouldEvictBucketsOfIdleClients() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        properties.setIdleTimeout(Duration.ofMillis(1));
+        filter = new RateLimitFilter(properties, registry, new ObjectMapper());
+
+        filter.tryAcquire("user:1", "/users");
+        filter.tryAcquire("user:2", "/items/search");
+        Thread.sleep(10);
+        filter.tryAcquire("user:3", "/users");
+
+        assertEquals(1, registry.get("gateway.ratelimit.buckets").gauge().value());
+    }
+
+    private int search(String path) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        request.addHeader(HEADER_NAME_CONTAINS_OWNER_ID, "1");
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_shouldRefillAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+        assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2));
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldNotRefillAboveCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(100 * SECOND));
+        assertEquals(0, bucket.tryAcquire(100 * SECOND));
+        assertTrue(bucket.tryAcquire(100 * SECOND) > 0);
+    }
+
+    // Поток, прочитавший время раньше другого, не должен отодвигать момент пополнения назад
+    @Test
+    void tryAcquire_shouldNotRefillTwiceAfterEarlierTimestamp() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+        assertTrue(bucket.tryAcquire(SECOND + SECOND / 2) > 0);
+        assertEquals(0, bucket.tryAcquire(2 * SECOND));
+    }
+
+    @Test
+    void tryAcquire_shouldGiveOutCapacityOnceUnderContention() throws Exception {
+        int capacity = 100;
+        TokenBucket bucket = new TokenBucket(capacity, 0.001, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> {
+                int acquired = 0;
+
+                for (int attempt = 0; attempt < 50; attempt++) {
+                    if (bucket.tryAcquire(SECOND / 1000) == 0) {
+                        acquired++;
+                    }
+                }
+                return acquired;
+            });
+        }
+
+        int acquired = 0;
+
+        try {
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                acquired += result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(capacity, acquired);
+    }
+
+    @Test
+    void isIdle_shouldDependOnLastAcquire() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+
+        bucket.tryAcquire(5 * SECOND);
+
+        assertFalse(bucket.isIdle(10 * SECOND, 10 * SECOND));
+        assertTrue(bucket.isIdle(16 * SECOND, 10 * SECOND));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сервер или гейтвей, запущенный из собранного jar отдельным процессом на свободном порту.
+// Вывод приложения пишется в <name>.log каталога результатов
+public class ApplicationProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration HEALTH_POLL_INTERVAL = Duration.ofMillis(500);
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int port;
+    private final Process process;
+    private final long startedNanos;
+
+    private ApplicationProcess(String name, int port, Process process, long startedNanos) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+        this.startedNanos = startedNanos;
+    }
+
+    public static ApplicationProcess start(String name, Path jar, List<String> jvmArgs, List<String> args,
+                                           Path output) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Не найден " + jar.toAbsolutePath() + ", соберите проект: mvn package");
+        }
+
+        int port = findFreePort();
+        List<String> command = new ArrayList<>();
+
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.addAll(args);
+
+        long startedNanos = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(output.resolve(name + ".log").toFile())
+                .start();
+        return new ApplicationProcess(name, port, process, startedNanos);
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + port;
+    }
+
+    // Ожидание, пока /actuator/health не ответит 200
+    public void awaitHealthy(HttpClient client) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(getUrl() + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+
+        awaitResponse(client, request, HEALTH_POLL_INTERVAL);
+    }
+
+    // Запрос повторяется каждые pollInterval, пока не вернёт 200. Возвращает время от запуска процесса
+    // до этого ответа, то есть время до первого обслуженного запроса
+    public Duration awaitResponse(HttpClient client, HttpRequest request, Duration pollInterval)
+            throws InterruptedException {
+        long deadline = startedNanos + STARTUP_TIMEOUT.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился с кодом " + process.exitValue()
+                        + ", см. " + name + ".log");
+            }
+
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - startedNanos);
+                }
+            } catch (IOException e) {
+                // Приложение ещё не слушает порт
+            }
+            Thread.sleep(pollInterval.toMillis());
+        }
+        throw new IllegalStateException(name + " не запустился за " + STARTUP_TIMEOUT.toSeconds() + " с");
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+
+        if (!process.waitFor(SHUTDOWN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int findFreePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
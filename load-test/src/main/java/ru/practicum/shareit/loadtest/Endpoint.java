@@ -0,0 +1,31 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Эндпоинты гейтвея, из которых составляется нагрузка. В --mix указываются в нижнем регистре через дефис
+@Getter
+@RequiredArgsConstructor
+public enum Endpoint {
+
+    SEARCH("GET /items/search"),            // Поиск вещей по слову из названия
+    ITEM("GET /items/{itemId}"),            // Просмотр вещи
+    BOOK("POST /bookings"),                 // Бронирование вещи
+    APPROVE("PATCH /bookings/{bookingId}"), // Подтверждение владельцем бронирования, созданного в прогоне
+    OWNER_BOOKINGS("GET /bookings/owner");  // Первая страница бронирований владельца
+
+    private final String title;
+
+    public String getKey() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    public static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.getKey().equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный эндпоинт: " + key);
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Результаты одного эндпоинта. Задержки успешных ответов (в микросекундах, от запланированного
+// времени отправки) пишутся в Recorder; раз в интервал накопленное за него сбрасывается в .hlog
+// и добавляется к общей гистограмме, из которой в конце строится .hgrm
+public class EndpointStats implements AutoCloseable {
+
+    // .hlog и .hgrm в миллисекундах
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    @Getter
+    private final Endpoint endpoint;
+    private final Recorder recorder = new Recorder(3);
+    @Getter
+    private final Histogram total = new Histogram(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final PrintStream logStream;
+    private final HistogramLogWriter logWriter;
+    private final long startTimeMillis;
+    private Histogram interval;
+
+    public EndpointStats(Endpoint endpoint, Path output, long startTimeMillis) throws FileNotFoundException {
+        this.endpoint = endpoint;
+        this.startTimeMillis = startTimeMillis;
+        this.logStream = new PrintStream(output.resolve(endpoint.getKey() + ".hlog").toFile());
+        this.logWriter = new HistogramLogWriter(logStream);
+        logWriter.outputComment(endpoint.getTitle() + ", latency in ms");
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(startTimeMillis);
+        logWriter.setBaseTime(startTimeMillis);
+        logWriter.outputLegend();
+    }
+
+    public void recordResponse(int status, long latencyMicros) {
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+
+        if (status / 100 == 2) {
+            recorder.recordValue(latencyMicros);
+        }
+    }
+
+    // Ответ не получен: таймаут или ошибка соединения
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    // Запрос не отправлен: например, нечего подтверждать
+    public void recordSkipped() {
+        skipped.increment();
+    }
+
+    // Запрос не отправлен, потому что в полёте уже max-in-flight запросов
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    // Начало измерения: интервал отсчитывается с этого момента
+    public synchronized void startMeasurement() {
+        interval = recorder.getIntervalHistogram(interval);
+    }
+
+    public synchronized void flushInterval() {
+        interval = recorder.getIntervalHistogram(interval);
+        logWriter.outputIntervalHistogram((interval.getStartTimeStamp() - startTimeMillis) / 1000.0,
+                (interval.getEndTimeStamp() - startTimeMillis) / 1000.0, interval, MICROS_PER_MILLI);
+        total.add(interval);
+    }
+
+    public synchronized void writePercentiles(Path output) throws FileNotFoundException {
+        try (PrintStream stream = new PrintStream(output.resolve(endpoint.getKey() + ".hgrm").toFile())) {
+            total.outputPercentileDistribution(stream, MICROS_PER_MILLI);
+        }
+    }
+
+    public long getSuccessful() {
+        return total.getTotalCount();
+    }
+
+    // Ответы с кодом не 2xx, по кодам
+    public Map<Integer, Long> getErrorStatuses() {
+        Map<Integer, Long> errors = new TreeMap<>();
+
+        statuses.forEach((status, count) -> {
+            if (status / 100 != 2) {
+                errors.put(status, count.sum());
+            }
+        });
+        return errors;
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public double getPercentileMillis(double percentile) {
+        return total.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    @Override
+    public void close() {
+        logStream.close();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Пользователи и вещи, созданные через гейтвей перед прогоном, и бронирования, созданные в прогоне
+// и ещё не подтверждённые. Названия вещей составлены из WORDS, по ним же идёт поиск
+public class Fixture {
+
+    public static final List<String> WORDS = List.of("drill", "ladder", "tent", "bike", "camera", "projector",
+            "saw", "kayak");
+
+    private final List<Long> ownerIds = new ArrayList<>();
+    private final List<Long> bookerIds = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Booking> waitingBookings = new ConcurrentLinkedQueue<>();
+
+    public static Fixture create(GatewayClient client, LoadTestOptions options)
+            throws IOException, InterruptedException {
+        Fixture fixture = new Fixture();
+        // Повторный прогон на той же базе Postgres не должен упираться в уникальность email
+        String run = UUID.randomUUID().toString().substring(0, 8);
+
+        for (int i = 0; i < options.getOwners(); i++) {
+            long ownerId = createUser(client, "owner" + i, "owner" + i + "-" + run + "@load.test");
+
+            fixture.ownerIds.add(ownerId);
+
+            for (int j = 0; j < options.getItemsPerOwner(); j++) {
+                String word = WORDS.get((i + j) % WORDS.size());
+                JsonNode item = client.send(client.post("/items", ownerId, Map.of(
+                        "name", word + " " + j,
+                        "description", "A " + word + " for rent",
+                        "available", true)));
+
+                fixture.items.add(new Item(item.get("id").asLong(), ownerId));
+            }
+        }
+
+        for (int i = 0; i < options.getBookers(); i++) {
+            fixture.bookerIds.add(createUser(client, "booker" + i, "booker" + i + "-" + run + "@load.test"));
+        }
+        return fixture;
+    }
+
+    public Long randomOwner(Random random) {
+        return ownerIds.get(random.nextInt(ownerIds.size()));
+    }
+
+    public Long randomBooker(Random random) {
+        return bookerIds.get(random.nextInt(bookerIds.size()));
+    }
+
+    public Item randomItem(Random random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    public String randomWord(Random random) {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    public void addWaitingBooking(Booking booking) {
+        waitingBookings.add(booking);
+    }
+
+    public Booking pollWaitingBooking() {
+        return waitingBookings.poll();
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    private static long createUser(GatewayClient client, String name, String email)
+            throws IOException, InterruptedException {
+        return client.send(client.post("/users", null, Map.of("name", name, "email", email))).get("id").asLong();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Item {
+
+        private final long id;
+        private final long ownerId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Booking {
+
+        private final long id;
+        private final long ownerId;
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Нагрузка с открытым циклом: запросы отправляются по расписанию с частотой rps независимо от того,
+// ответил ли сервис на предыдущие. Задержка считается от запланированного времени отправки, поэтому
+// замедление сервиса не снижает нагрузку и не прячется в паузах генератора (coordinated omission)
+public class LoadGenerator {
+
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int PAGE_SIZE = 20;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final GatewayClient client;
+    private final Fixture fixture;
+    private final LoadTestOptions options;
+    private final Map<Endpoint, EndpointStats> stats;
+    private final Random random = new Random();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator(GatewayClient client, Fixture fixture, LoadTestOptions options,
+                         Map<Endpoint, EndpointStats> stats) {
+        this.client = client;
+        this.fixture = fixture;
+        this.options = options;
+        this.stats = new EnumMap<>(stats);
+    }
+
+    // Возвращает длительность измеренной части прогона в секундах
+    public double run() throws InterruptedException {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) options.getRps();
+        long start = System.nanoTime();
+        long measurementStart = start + options.getWarmup().toNanos();
+        long end = measurementStart + options.getDuration().toNanos();
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        boolean measuring = false;
+
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+
+                if (intended >= end) {
+                    break;
+                }
+
+                if (!measuring && intended >= measurementStart) {
+                    measuring = true;
+                    stats.values().forEach(EndpointStats::startMeasurement);
+                    flusher.scheduleAtFixedRate(() -> stats.values().forEach(EndpointStats::flushInterval),
+                            FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                waitUntil(intended);
+                send(options.getMix().next(random), intended, measuring);
+            }
+
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+
+            while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            flusher.shutdown();
+            flusher.awaitTermination(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        stats.values().forEach(EndpointStats::flushInterval);
+        return (System.nanoTime() - measurementStart) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private void send(Endpoint endpoint, long intended, boolean measuring) {
+        EndpointStats endpointStats = measuring ? stats.get(endpoint) : null;
+        HttpRequest request;
+        Fixture.Item item = null;
+
+        switch (endpoint) {
+            case SEARCH:
+                request = client.get("/items/search?text=" + fixture.randomWord(random)
+                        + "&from=0&size=" + PAGE_SIZE, fixture.randomBooker(random));
+                break;
+            case ITEM:
+                request = client.get("/items/" + fixture.randomItem(random).getId(), fixture.randomBooker(random));
+                break;
+            case BOOK:
+                item = fixture.randomItem(random);
+                request = client.post("/bookings", fixture.randomBooker(random), bookingBody(item.getId()));
+                break;
+            case APPROVE:
+                Fixture.Booking booking = fixture.pollWaitingBooking();
+
+                if (booking == null) {
+                    if (endpointStats != null) {
+                        endpointStats.recordSkipped();
+                    }
+                    return;
+                }
+                request = client.patch("/bookings/" + booking.getId() + "?approved=true", booking.getOwnerId());
+                break;
+            case OWNER_BOOKINGS:
+                request = client.get("/bookings/owner?state=ALL&from=0&size=" + PAGE_SIZE,
+                        fixture.randomOwner(random));
+                break;
+            default:
+                throw new IllegalStateException("Неизвестный эндпоинт: " + endpoint);
+        }
+
+        if (inFlight.get() >= options.getMaxInFlight()) {
+            if (endpointStats != null) {
+                endpointStats.recordDropped();
+            }
+            return;
+        }
+
+        Fixture.Item bookedItem = item;
+        CompletableFuture<HttpResponse<String>> response = client.sendAsync(request);
+
+        inFlight.incrementAndGet();
+        response.whenComplete((result, error) -> {
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+
+            inFlight.decrementAndGet();
+
+            if (error != null) {
+                if (endpointStats != null) {
+                    endpointStats.recordFailure();
+                }
+                return;
+            }
+
+            if (endpointStats != null) {
+                endpointStats.recordResponse(result.statusCode(), latencyMicros);
+            }
+
+            if (bookedItem != null && result.statusCode() / 100 == 2) {
+                long bookingId = client.readJson(result.body()).get("id").asLong();
+
+                fixture.addWaitingBooking(new Fixture.Booking(bookingId, bookedItem.getOwnerId()));
+            }
+        });
+    }
+
+    // Бронирования не пересекаются по времени только случайно: сервер пересечения не проверяет
+    private Map<String, Object> bookingBody(long itemId) {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                .plusDays(1)
+                .plusMinutes(random.nextInt(60 * 24 * 30));
+
+        return Map.of(
+                "itemId", itemId,
+                "start", DATE_TIME.format(start),
+                "end", DATE_TIME.format(start.plusDays(1)));
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Параметры прогона в виде --имя=значение. Повторяемые --server-arg и --gateway-arg передаются
+// запускаемым приложениям как есть, например --gateway-arg=--shareit-server.wire-format=json
+@Getter
+public class LoadTestOptions {
+
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "java -jar load-test/target/load-test.jar [options]",
+            "  --rps=200                  target request rate, requests are sent on schedule (open loop)",
+            "  --duration=60s             measured part of the run",
+            "  --warmup=10s               run at the same rate before measuring, not recorded",
+            "  --mix=search:30,item:30,book:10,approve:10,owner-bookings:20",
+            "                             relative weights of the endpoints",
+            "  --owners=20 --items-per-owner=10 --bookers=50",
+            "                             data created through the gateway before the run",
+            "  --max-in-flight=5000       requests over this number are dropped and counted",
+            "  --database=h2              h2 (in-memory, test profile) or postgres",
+            "  --db-url= --db-user= --db-password=",
+            "                             connection to a local Postgres for --database=postgres",
+            "  --server-jar=server/target/shareit-server-0.0.1-SNAPSHOT.jar",
+            "  --gateway-jar=gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar",
+            "  --jvm-args=\"-Xmx512m\"      JVM options of both applications",
+            "  --server-arg=... --gateway-arg=...",
+            "                             extra application arguments, may be repeated",
+            "  --output=load-test-results directory for histograms, summary and application logs",
+            "",
+            "java -cp load-test/target/load-test.jar ru.practicum.shareit.loadtest.StartupBenchmark [options]",
+            "  --runs=5                   starts of each application per variant, time to the first served request",
+            "                             (database, jars, jvm-args, server-arg, gateway-arg and output as above)");
+
+    private int rps = 200;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private TrafficMix mix = TrafficMix.parse("search:30,item:30,book:10,approve:10,owner-bookings:20");
+    private int owners = 20;
+    private int itemsPerOwner = 10;
+    private int bookers = 50;
+    private int maxInFlight = 5000;
+    private int runs = 5;
+    private String database = "h2";
+    private String dbUrl = "jdbc:postgresql://localhost:5432/shareit";
+    private String dbUser = "shareit_user";
+    private String dbPassword = "shareit";
+    private Path serverJar = Path.of("server", "target", "shareit-server-0.0.1-SNAPSHOT.jar");
+    private Path gatewayJar = Path.of("gateway", "target", "shareit-gateway-0.0.1-SNAPSHOT.jar");
+    private List<String> jvmArgs = new ArrayList<>();
+    private final List<String> serverArgs = new ArrayList<>();
+    private final List<String> gatewayArgs = new ArrayList<>();
+    private Path output = Path.of("load-test-results");
+    private boolean help;
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                options.help = true;
+                continue;
+            }
+
+            int separator = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Параметр должен иметь вид --имя=значение: " + arg);
+            }
+            options.set(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        if (!options.database.equals("h2") && !options.database.equals("postgres")) {
+            throw new IllegalArgumentException("Неизвестная база данных: " + options.database);
+        }
+
+        if (options.rps <= 0 || options.owners <= 0 || options.itemsPerOwner <= 0 || options.bookers <= 0
+                || options.runs <= 0) {
+            throw new IllegalArgumentException("rps, owners, items-per-owner, bookers и runs должны быть больше нуля");
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "rps":
+                rps = Integer.parseInt(value);
+                break;
+            case "duration":
+                duration = parseDuration(value);
+                break;
+            case "warmup":
+                warmup = parseDuration(value);
+                break;
+            case "mix":
+                mix = TrafficMix.parse(value);
+                break;
+            case "owners":
+                owners = Integer.parseInt(value);
+                break;
+            case "items-per-owner":
+                itemsPerOwner = Integer.parseInt(value);
+                break;
+            case "bookers":
+                bookers = Integer.parseInt(value);
+                break;
+            case "max-in-flight":
+                maxInFlight = Integer.parseInt(value);
+                break;
+            case "runs":
+                runs = Integer.parseInt(value);
+                break;
+            case "database":
+                database = value;
+                break;
+            case "db-url":
+                dbUrl = value;
+                break;
+            case "db-user":
+                dbUser = value;
+                break;
+            case "db-password":
+                dbPassword = value;
+                break;
+            case "server-jar":
+                serverJar = Path.of(value);
+                break;
+            case "gateway-jar":
+                gatewayJar = Path.of(value);
+                break;
+            case "jvm-args":
+                jvmArgs = value.isBlank() ? new ArrayList<>() : List.of(value.trim().split("\\s+"));
+                break;
+            case "server-arg":
+                serverArgs.add(value);
+                break;
+            case "gateway-arg":
+                gatewayArgs.add(value);
+                break;
+            case "output":
+                output = Path.of(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный параметр: --" + name);
+        }
+    }
+
+    // 90s, 2m, 500ms или ISO-8601 (PT1M)
+    private static Duration parseDuration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+
+        switch (value.charAt(value.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            case 'h':
+                return Duration.ofHours(amount);
+            default:
+                throw new IllegalArgumentException("Неверная длительность: " + value);
+        }
+    }
+}
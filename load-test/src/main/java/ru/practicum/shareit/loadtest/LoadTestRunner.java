@@ -0,0 +1,131 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Нагрузочный прогон: сервер и гейтвей запускаются из собранных jar на свободных портах,
+// через гейтвей создаются пользователи и вещи, затем подаётся нагрузка из смеси эндпоинтов.
+// В каталог результатов пишутся гистограммы задержек по эндпоинтам (.hgrm — перцентили за весь прогон,
+// .hlog — по секундам), summary.txt и логи приложений
+public class LoadTestRunner {
+
+    private static final double[] PERCENTILES = {50.0, 95.0, 99.0, 99.9};
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        if (options.isHelp()) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+
+        Path output = options.getOutput()
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Files.createDirectories(output);
+        System.out.println("Результаты: " + output.toAbsolutePath());
+
+        try (ApplicationProcess server = ApplicationProcess.start("server", options.getServerJar(),
+                options.getJvmArgs(), serverArgs(options), output)) {
+            server.awaitHealthy(httpClient);
+
+            List<String> gatewayArgs = new ArrayList<>();
+
+            gatewayArgs.add("--shareit-server.url=" + server.getUrl());
+            gatewayArgs.addAll(options.getGatewayArgs());
+
+            try (ApplicationProcess gateway = ApplicationProcess.start("gateway", options.getGatewayJar(),
+                    options.getJvmArgs(), gatewayArgs, output)) {
+                gateway.awaitHealthy(httpClient);
+                System.out.println("Сервер: " + server.getUrl() + ", гейтвей: " + gateway.getUrl());
+
+                GatewayClient client = new GatewayClient(httpClient, gateway.getUrl());
+                Fixture fixture = Fixture.create(client, options);
+
+                System.out.printf("Создано вещей: %d, нагрузка %d rps (%s), прогрев %d с, измерение %d с%n",
+                        fixture.getItemCount(), options.getRps(), options.getMix(),
+                        options.getWarmup().toSeconds(), options.getDuration().toSeconds());
+                run(client, fixture, options, output);
+            }
+        }
+    }
+
+    private static void run(GatewayClient client, Fixture fixture, LoadTestOptions options, Path output)
+            throws IOException, InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        long startTimeMillis = System.currentTimeMillis();
+
+        try {
+            for (Endpoint endpoint : options.getMix().getEndpoints()) {
+                stats.put(endpoint, new EndpointStats(endpoint, output, startTimeMillis));
+            }
+
+            double seconds = new LoadGenerator(client, fixture, options, stats).run();
+
+            for (EndpointStats endpointStats : stats.values()) {
+                endpointStats.writePercentiles(output);
+            }
+
+            try (PrintStream summary = new PrintStream(output.resolve("summary.txt").toFile())) {
+                printSummary(summary, stats, seconds, options);
+            }
+            printSummary(System.out, stats, seconds, options);
+        } finally {
+            stats.values().forEach(EndpointStats::close);
+        }
+    }
+
+    private static void printSummary(PrintStream out, Map<Endpoint, EndpointStats> stats, double seconds,
+                                     LoadTestOptions options) {
+        out.printf("Target %d rps, mix %s, measured %.1f s%n", options.getRps(), options.getMix(), seconds);
+        out.printf("%-30s %10s %10s %8s %8s %8s %10s %10s %10s %10s %10s%n", "Endpoint", "ok/s", "ok",
+                "errors", "skipped", "dropped", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (EndpointStats endpointStats : stats.values()) {
+            Map<Integer, Long> errorStatuses = endpointStats.getErrorStatuses();
+            long errors = endpointStats.getFailures()
+                    + errorStatuses.values().stream().mapToLong(Long::longValue).sum();
+
+            out.printf("%-30s %10.1f %10d %8d %8d %8d", endpointStats.getEndpoint().getTitle(),
+                    endpointStats.getSuccessful() / seconds, endpointStats.getSuccessful(), errors,
+                    endpointStats.getSkipped(), endpointStats.getDropped());
+
+            for (double percentile : PERCENTILES) {
+                out.printf(" %10.2f", endpointStats.getPercentileMillis(percentile));
+            }
+            out.printf(" %10.2f%n", endpointStats.getTotal().getMaxValue() / 1000.0);
+
+            if (errors > 0) {
+                out.printf("%-30s statuses %s, no response %d%n", "", errorStatuses, endpointStats.getFailures());
+            }
+        }
+    }
+
+    static List<String> serverArgs(LoadTestOptions options) {
+        List<String> args = new ArrayList<>();
+
+        if (options.getDatabase().equals("h2")) {
+            args.add("--spring.profiles.active=test");
+        } else {
+            args.add("--spring.datasource.url=" + options.getDbUrl());
+            args.add("--spring.datasource.username=" + options.getDbUser());
+            args.add("--spring.datasource.password=" + options.getDbPassword());
+        }
+        args.addAll(options.getServerArgs());
+        return args;
+    }
+}
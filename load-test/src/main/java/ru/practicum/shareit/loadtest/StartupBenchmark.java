@@ -0,0 +1,160 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Время до первого обслуженного запроса: от запуска процесса до первого ответа 200 на GET /users.
+// Сервер и гейтвей запускаются по --runs раз в каждом варианте: как есть, с профилем startup
+// и с профилем startup из CDS-раскладки target/cds (mvn package -Pcds), если она собрана.
+// Гейтвей при каждом запуске обращается к одному и тому же уже запущенному серверу
+public class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String STARTUP_PROFILE = "--spring.profiles.include=startup";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        if (options.isHelp()) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+
+        Path output = options.getOutput()
+                .resolve("startup-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        List<Result> results = new ArrayList<>();
+
+        Files.createDirectories(output);
+        System.out.println("Результаты: " + output.toAbsolutePath());
+
+        List<String> serverArgs = LoadTestRunner.serverArgs(options);
+
+        for (Variant variant : variants(options.getServerJar(), "shareit-server")) {
+            results.add(measure("server", variant, serverArgs, options, httpClient, output));
+        }
+
+        try (ApplicationProcess server = ApplicationProcess.start("server", options.getServerJar(),
+                options.getJvmArgs(), serverArgs, output)) {
+            server.awaitHealthy(httpClient);
+
+            List<String> gatewayArgs = new ArrayList<>();
+
+            gatewayArgs.add("--shareit-server.url=" + server.getUrl());
+            gatewayArgs.addAll(options.getGatewayArgs());
+
+            for (Variant variant : variants(options.getGatewayJar(), "shareit-gateway")) {
+                results.add(measure("gateway", variant, gatewayArgs, options, httpClient, output));
+            }
+        }
+
+        try (PrintStream summary = new PrintStream(output.resolve("startup.txt").toFile())) {
+            printSummary(summary, results, options);
+        }
+        printSummary(System.out, results, options);
+    }
+
+    // CDS-вариант берёт jar и архив из каталога cds рядом с исполняемым jar
+    private static List<Variant> variants(Path jar, String artifactId) {
+        List<Variant> variants = new ArrayList<>();
+        Path cds = jar.toAbsolutePath().getParent().resolve("cds");
+        String fileName = jar.getFileName().toString();
+        Path cdsJar = cds.resolve(fileName.substring(0, fileName.length() - ".jar".length()) + "-cds.jar");
+        Path archive = cds.resolve(artifactId + ".jsa");
+
+        variants.add(new Variant("default", jar, List.of(), List.of()));
+        variants.add(new Variant("startup", jar, List.of(), List.of(STARTUP_PROFILE)));
+
+        if (Files.isRegularFile(cdsJar) && Files.isRegularFile(archive)) {
+            variants.add(new Variant("startup-cds", cdsJar, List.of("-XX:SharedArchiveFile=" + archive),
+                    List.of(STARTUP_PROFILE)));
+        } else {
+            System.out.println("Нет " + archive + ", вариант с CDS пропущен: соберите mvn package -Pcds");
+        }
+        return variants;
+    }
+
+    private static Result measure(String application, Variant variant, List<String> args, LoadTestOptions options,
+                                  HttpClient httpClient, Path output) throws Exception {
+        List<String> jvmArgs = new ArrayList<>(options.getJvmArgs());
+        List<String> applicationArgs = new ArrayList<>(args);
+        List<Duration> times = new ArrayList<>();
+
+        jvmArgs.addAll(variant.getJvmArgs());
+        applicationArgs.addAll(variant.getArgs());
+
+        for (int run = 1; run <= options.getRuns(); run++) {
+            String name = application + "-" + variant.getName() + "-" + run;
+
+            try (ApplicationProcess process = ApplicationProcess.start(name, variant.getJar(), jvmArgs,
+                    applicationArgs, output)) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(process.getUrl() + "/users"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Accept", "application/json")
+                        .build();
+                Duration time = process.awaitResponse(httpClient, request, POLL_INTERVAL);
+
+                times.add(time);
+                System.out.printf("%s: %.2f s%n", name, seconds(time));
+            }
+        }
+        return new Result(application, variant.getName(), times);
+    }
+
+    private static void printSummary(PrintStream out, List<Result> results, LoadTestOptions options) {
+        out.printf("Time to first request (GET /users), %d runs, database %s, jvm args %s%n", options.getRuns(),
+                options.getDatabase(), options.getJvmArgs());
+        out.printf("%-10s %-12s %8s %8s %8s  %s%n", "App", "Variant", "min s", "median s", "max s", "runs s");
+
+        for (Result result : results) {
+            List<Duration> sorted = result.getTimes().stream().sorted().collect(Collectors.toList());
+
+            out.printf("%-10s %-12s %8.2f %8.2f %8.2f  %s%n", result.getApplication(), result.getVariant(),
+                    seconds(sorted.get(0)), seconds(sorted.get(sorted.size() / 2)),
+                    seconds(sorted.get(sorted.size() - 1)), result.getTimes().stream()
+                            .map(time -> String.format("%.2f", seconds(time)))
+                            .collect(Collectors.joining(" ")));
+        }
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+
+    // Способ запуска: исполняемый jar, дополнительные параметры JVM и приложения
+    @Getter
+    @AllArgsConstructor
+    private static class Variant {
+
+        private final String name;
+        private final Path jar;
+        private final List<String> jvmArgs;
+        private final List<String> args;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Result {
+
+        private final String application;
+        private final String variant;
+        private final List<Duration> times;
+    }
+}
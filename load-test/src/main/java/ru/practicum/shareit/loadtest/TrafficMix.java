@@ -0,0 +1,80 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+// Доли эндпоинтов в нагрузке: search:30,item:30,... Каждый следующий запрос выбирается случайно
+// с вероятностью, пропорциональной весу
+public class TrafficMix {
+
+    private final Map<Endpoint, Integer> weights;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private TrafficMix(Map<Endpoint, Integer> weights) {
+        this.weights = weights;
+        this.endpoints = weights.keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+
+        int sum = 0;
+
+        for (int i = 0; i < endpoints.length; i++) {
+            sum += weights.get(endpoints[i]);
+            cumulativeWeights[i] = sum;
+        }
+        this.totalWeight = sum;
+    }
+
+    public static TrafficMix parse(String value) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+
+        for (String part : value.split(",")) {
+            String[] keyAndWeight = part.trim().split(":");
+
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Вес эндпоинта задаётся как имя:вес, получено " + part);
+            }
+
+            int weight = Integer.parseInt(keyAndWeight[1].trim());
+
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вес эндпоинта не может быть отрицательным: " + part);
+            }
+
+            if (weight > 0) {
+                weights.put(Endpoint.fromKey(keyAndWeight[0].trim()), weight);
+            }
+        }
+
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("В нагрузке нет ни одного эндпоинта: " + value);
+        }
+        return new TrafficMix(weights);
+    }
+
+    public Endpoint next(Random random) {
+        int point = random.nextInt(totalWeight);
+
+        for (int i = 0; i < endpoints.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    public Iterable<Endpoint> getEndpoints() {
+        return weights.keySet();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        weights.forEach((endpoint, weight) -> builder.append(builder.length() == 0 ? "" : ",")
+                .append(endpoint.getKey()).append(':').append(weight));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Выборочная запись событий: из событий уровня level и ниже у логгеров, имя которых начинается
+// с одного из loggerPrefix, записывается примерно одно из rate. Решение принимается до форматирования
+// сообщения, поэтому у отброшенных событий toString() параметров не вызывается.
+// Предупреждения и ошибки записываются всегда
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+    private Level level = Level.INFO;
+    private int rate = 1;
+
+    // Элемент loggerPrefix может повторяться
+    public void addLoggerPrefix(String loggerPrefix) {
+        loggerPrefixes.add(loggerPrefix);
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Проверки isInfoEnabled() и т.п. приходят без сообщения и не должны влиять на выборку
+        if (rate <= 1 || format == null || level.isGreaterOrEqual(Level.WARN) || level.toInt() > this.level.toInt()
+                || loggerPrefixes.stream().noneMatch(logger.getName()::startsWith)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
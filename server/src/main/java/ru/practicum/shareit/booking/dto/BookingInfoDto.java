@@ -26,6 +26,18 @@ public class BookingInfoDto {
 
     private ItemForBookingInfoDto item;
 
+    // Конструктор для выборки бронирований сразу в DTO (select new ... в BookingRepository)
+    public BookingInfoDto(
+            Long id,
+            LocalDateTime start,
+            LocalDateTime end,
+            BookingStatus status,
+            Long bookerId,
+            Long itemId,
+            String itemName) {
+        this(id, start, end, status, new UserForBookingInfoDto(bookerId), new ItemForBookingInfoDto(itemId, itemName));
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -8,6 +8,7 @@ import ru.practicum.shareit.user.model.User;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
+// Граф Booking.item: BookingMapper берёт у вещи имя, а у автора бронирования только идентификатор
 @Builder
 @Getter
 @Setter
@@ -15,9 +16,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @ToString
 @Entity
+@NamedEntityGraph(name = Booking.WITH_ITEM, attributeNodes = @NamedAttributeNode("item"))
 @Table(name = "bookings")
 public class Booking {
 
+    public static final String WITH_ITEM = "Booking.item";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -30,12 +34,12 @@ public class Booking {
     private LocalDateTime end;
 
     @ToString.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
 
     @ToString.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     private User booker;
 
@@ -1,58 +1,81 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+// Списки бронирований выбираются сразу в BookingInfoDto, без загрузки сущностей.
+// Отдельное бронирование загружается вместе с вещью (граф Booking.item)
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @Query("select b from Booking b where b.item.id = ?1 and b.end < ?2")
-    List<Booking> findLastBooking(Long itemId, LocalDateTime now);
+    String BOOKING_INFO = "select new ru.practicum.shareit.booking.dto.BookingInfoDto("
+            + "b.id, b.start, b.end, b.status, b.booker.id, i.id, i.name) from Booking b join b.item i";
 
-    @Query("select b from Booking b where b.item.id = ?1 and b.start > ?2")
-    List<Booking> findNextBooking(Long itemId, LocalDateTime now);
+    @Override
+    @EntityGraph(Booking.WITH_ITEM)
+    Optional<Booking> findById(Long bookingId);
 
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.start > ?2 order by b.id desc")
-    List<Booking> findOwnerBookingsWithStartIsAfter(Long ownerId, LocalDateTime now, Pageable pageable);
+    // Для страницы вещей по одному бронированию на вещь: граница находится подзапросом по индексам
+    // (item_id, end_date_time) и (item_id, start_date_time), все бронирования вещей не загружаются
+    @Query("select b from Booking b where b.item.id in ?1 and b.end = "
+            + "(select min(l.end) from Booking l where l.item.id = b.item.id and l.end < ?2)")
+    List<Booking> findLastBookings(Collection<Long> itemIds, LocalDateTime now);
 
-    @Query("select b from Booking b where b.booker.id = ?1 and b.start > ?2 order by b.id desc")
-    List<Booking> findUserBookingsWithStartIsAfter(Long userId, LocalDateTime now, Pageable pageable);
+    @Query("select b from Booking b where b.item.id in ?1 and b.start = "
+            + "(select max(n.start) from Booking n where n.item.id = b.item.id and n.start > ?2)")
+    List<Booking> findNextBookings(Collection<Long> itemIds, LocalDateTime now);
 
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?2")
-    List<Booking> findCurrentOwnerBookings(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_INFO + " where i.owner.id = ?1 and b.start > ?2 order by b.id desc")
+    List<BookingInfoDto> findOwnerBookingsWithStartIsAfter(Long ownerId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.booker.id = ?1 and b.start < ?2 and b.end > ?2")
-    List<Booking> findCurrentUserBookings(Long userId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_INFO + " where b.booker.id = ?1 and b.start > ?2 order by b.id desc")
+    List<BookingInfoDto> findUserBookingsWithStartIsAfter(Long userId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.end < ?2 order by b.id desc")
-    List<Booking> findOwnerBookingsWithEndIsBefore(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_INFO + " where i.owner.id = ?1 and b.start < ?2 and b.end > ?2")
+    List<BookingInfoDto> findCurrentOwnerBookings(Long ownerId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.booker.id = ?1 and b.end < ?2 order by b.id desc")
-    List<Booking> findUserBookingsWithEndIsBefore(Long userId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_INFO + " where b.booker.id = ?1 and b.start < ?2 and b.end > ?2")
+    List<BookingInfoDto> findCurrentUserBookings(Long userId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.status = ?2")
-    List<Booking> findOwnerBookingsByState(Long ownerId, BookingStatus state, Pageable pageable);
+    @Query(BOOKING_INFO + " where i.owner.id = ?1 and b.end < ?2 order by b.id desc")
+    List<BookingInfoDto> findOwnerBookingsWithEndIsBefore(Long ownerId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.booker.id = ?1 and b.status = ?2")
-    List<Booking> findUserBookingsByState(Long userId, BookingStatus state, Pageable pageable);
+    @Query(BOOKING_INFO + " where b.booker.id = ?1 and b.end < ?2 order by b.id desc")
+    List<BookingInfoDto> findUserBookingsWithEndIsBefore(Long userId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = ?1 order by b.id desc")
-    List<Booking> findOwnerBookings(Long ownerId, Pageable pageable);
+    @Query(BOOKING_INFO + " where i.owner.id = ?1 and b.status = ?2")
+    List<BookingInfoDto> findOwnerBookingsByState(Long ownerId, BookingStatus state, Pageable pageable);
 
-    @Query("select b from Booking b where b.booker.id = ?1 order by b.id desc")
-    List<Booking> findUserBookings(Long bookerId, Pageable pageable);
+    @Query(BOOKING_INFO + " where b.booker.id = ?1 and b.status = ?2")
+    List<BookingInfoDto> findUserBookingsByState(Long userId, BookingStatus state, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.id = ?1 and b.item.owner.id = ?2 and b.end < ?3")
-    List<Booking> findLastOwnerBooking(Long itemId, Long ownerId, LocalDateTime now);
+    @Query(BOOKING_INFO + " where i.owner.id = ?1 order by b.id desc")
+    List<BookingInfoDto> findOwnerBookings(Long ownerId, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.id = ?1 and b.item.owner.id = ?2 and b.start > ?3")
-    List<Booking> findNextOwnerBooking(Long itemId, Long ownerId, LocalDateTime now);
+    @Query(BOOKING_INFO + " where b.booker.id = ?1 order by b.id desc")
+    List<BookingInfoDto> findUserBookings(Long bookerId, Pageable pageable);
+
+    // У популярной вещи сотни тысяч бронирований: нужное выбирается сортировкой в базе, а не в памяти
+    @Query("select b from Booking b where b.item.id = ?1 and b.item.owner.id = ?2 and b.end < ?3 order by b.end asc")
+    List<Booking> findLastOwnerBooking(Long itemId, Long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query("select b from Booking b where b.item.id = ?1 and b.item.owner.id = ?2 and b.start > ?3 "
+            + "order by b.start desc")
+    List<Booking> findNextOwnerBooking(Long itemId, Long ownerId, LocalDateTime now, Pageable pageable);
 
     @Query("select count(b) from Booking b where b.end < ?2 group by b.booker.id having b.booker.id = ?1")
     Long getCountOfUserBookingsWithEndIsBefore(Long userId, LocalDateTime now);
+
+    @Query("select b.id from Booking b where b.booker.id = ?1 or b.item.id in " +
+            "(select i.id from Item i where i.owner.id = ?1)")
+    List<Long> findBookingIdsByBookerOrItemOwner(Long userId, Pageable pageable);
 }
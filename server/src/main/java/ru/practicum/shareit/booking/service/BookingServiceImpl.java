@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,7 @@ import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.ServiceMetricsConfig;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -25,11 +27,11 @@ import ru.practicum.shareit.utility.FromSizeRequest;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = ServiceMetricsConfig.SERVICE_TIMER, histogram = true)
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
@@ -79,9 +81,7 @@ public class BookingServiceImpl implements BookingService {
 
         checkIfUserIsExists(userId);
         checkIfUserHasItems(userId);
-        return selectBookings(userId, status, pageable, isOwner).stream()
-                .map(BookingMapper::toBookingInfoDto)
-                .collect(Collectors.toList());
+        return selectBookings(userId, status, pageable, isOwner);
     }
 
     // Подтверждение или отклонение запроса на бронирование
@@ -96,8 +96,12 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingInfoDto(bookingRepository.save(booking));
     }
 
-    private List<Booking> selectBookings(Long userId, BookingStatus status, Pageable pageable, boolean isOwner) {
-        List<Booking> bookings;
+    private List<BookingInfoDto> selectBookings(
+            Long userId,
+            BookingStatus status,
+            Pageable pageable,
+            boolean isOwner) {
+        List<BookingInfoDto> bookings;
 
         switch (status) {
             case FUTURE:
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+import ru.practicum.shareit.item.controller.ItemController;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+// Изменяющий запрос пользователя открывает окно, в котором все его запросы читают с основной базы.
+// Запись отмечается до выполнения запроса, чтобы следующий запрос клиента, отправленный
+// сразу после получения ответа, уже попал в окно, и продлевается после успешного ответа.
+// Клиенту ставится cookie с временем записи: шлюз передаёт её с последующими запросами, и окно
+// действует на любом экземпляре сервера, а не только на том, который выполнил запись
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String LAST_WRITE_COOKIE = "shareit-last-write";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadYourWritesTracker tracker;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Long userId = parseUserId(request.getHeader(ItemController.HEADER_NAME_CONTAINS_OWNER_ID));
+
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean write = !READ_METHODS.contains(request.getMethod());
+
+        if (write) {
+            tracker.recordWrite(userId);
+            response.addCookie(lastWriteCookie());
+        }
+
+        tracker.requirePrimary(write || tracker.hasRecentWrite(userId) || hasRecentWriteMarker(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tracker.requirePrimary(false);
+        }
+
+        if (write && response.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            tracker.recordWrite(userId);
+        }
+    }
+
+    private Cookie lastWriteCookie() {
+        Cookie cookie = new Cookie(LAST_WRITE_COOKIE, String.valueOf(System.currentTimeMillis()));
+
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, tracker.getWindow().toSeconds()));
+        return cookie;
+    }
+
+    private boolean hasRecentWriteMarker(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, LAST_WRITE_COOKIE);
+
+        if (cookie == null) {
+            return false;
+        }
+
+        try {
+            return tracker.isWithinWindow(Long.parseLong(cookie.getValue()), System.currentTimeMillis());
+        } catch (NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    private Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+// Пользователи, недавно изменявшие данные. Пока запись о пользователе не устарела,
+// его запросы читают с основной базы и видят свои изменения, даже если реплики отстают.
+// Кэш действует только в этом экземпляре сервера; если шлюз распределяет запросы между
+// несколькими экземплярами, окно переносится отметкой о записи (см. ReadYourWritesFilter)
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Duration window;
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.window = window;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean hasRecentWrite(Long userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+
+    // Отметка поставлена экземпляром, выполнившим запись; часы экземпляров должны быть синхронизированы
+    // с точностью заметно меньше окна
+    public boolean isWithinWindow(long writtenAtMillis, long nowMillis) {
+        return Math.abs(nowMillis - writtenAtMillis) < window.toMillis();
+    }
+
+    // Признак действует в потоке, обрабатывающем запрос пользователя
+    public void requirePrimary(boolean required) {
+        if (required) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    public boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+}
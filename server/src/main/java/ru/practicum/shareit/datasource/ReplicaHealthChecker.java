@@ -0,0 +1,52 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaHealthChecker {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReplicaLagProbe lagProbe;
+    private final Duration maxLag;
+
+    // Периодическая проверка реплик: недоступные и отставшие больше maxLag исключаются из чтения,
+    // восстановившиеся возвращаются. До первой проверки все чтения выполняются на основной базе
+    @Scheduled(fixedDelayString = "${shareit.datasource.routing.health-check-delay-ms:2000}")
+    public void checkReplicas() {
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            String key = replica.getKey();
+            boolean healthy = isHealthy(key, replica.getValue());
+
+            if (routingDataSource.setReplicaHealthy(key, healthy)) {
+                if (healthy) {
+                    log.info("Реплика {} доступна, чтения снова направляются на неё", key);
+                } else {
+                    log.warn("Реплика {} исключена, чтения выполняются на других репликах или основной базе", key);
+                }
+            }
+        }
+    }
+
+    private boolean isHealthy(String key, DataSource replica) {
+        try {
+            Duration lag = lagProbe.measureLag(replica);
+
+            if (lag.compareTo(maxLag) > 0) {
+                log.debug("Реплика {} отстаёт на {}, допустимо {}", key, lag, maxLag);
+                return false;
+            }
+            return true;
+        } catch (SQLException | RuntimeException exception) {
+            log.debug("Реплика {} не прошла проверку: {}", key, exception.getMessage());
+            return false;
+        }
+    }
+}
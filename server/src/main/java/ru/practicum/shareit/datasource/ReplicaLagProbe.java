@@ -0,0 +1,11 @@
+package ru.practicum.shareit.datasource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Проверка реплики: возвращает её отставание от основной базы или бросает исключение, если реплика недоступна
+public interface ReplicaLagProbe {
+
+    Duration measureLag(DataSource replica) throws SQLException;
+}
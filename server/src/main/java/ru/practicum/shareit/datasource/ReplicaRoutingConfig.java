@@ -0,0 +1,115 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Чтение с реплик включается свойством shareit.datasource.routing.enabled. Основная база
+// настраивается как обычно через spring.datasource, реплики — через shareit.datasource.routing.replicas
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "shareit.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaRoutingProperties properties,
+                                                             ReadYourWritesTracker readYourWritesTracker) {
+        List<ReplicaRoutingProperties.Replica> replicas = properties.getReplicas();
+        Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("Не задана ни одна реплика в shareit.datasource.routing.replicas");
+        }
+
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+
+            replicaDataSources.put(key, createReplicaDataSource(key, replicas.get(i), properties));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSources, readYourWritesTracker);
+    }
+
+    // Соединение берётся у маршрутизатора только при первом запросе внутри транзакции
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagProbe replicaLagProbe(ReplicaRoutingProperties properties) {
+        return new SqlReplicaLagProbe(properties.getLagQuery(), properties.getHealthCheckTimeout());
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                     ReplicaLagProbe replicaLagProbe,
+                                                     ReplicaRoutingProperties properties) {
+        return new ReplicaHealthChecker(replicaRoutingDataSource, replicaLagProbe, properties.getMaxLag());
+    }
+
+    // Фильтр стоит первым, чтобы признак чтения с основной базы действовал и в остальных фильтрах
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker tracker) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(tracker));
+
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Пул создаётся при первом запросе соединения, поэтому недоступная реплика не мешает запуску.
+    // Соединение с реплики ждут не дольше, чем длится проверка: зависшая реплика не задерживает
+    // ни запросы, ни общий поток @Scheduled-задач, а после проверки исключается из чтения
+    private HikariDataSource createReplicaDataSource(String key, ReplicaRoutingProperties.Replica replica,
+                                                     ReplicaRoutingProperties properties) {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replica.getUrl())
+                .username(replica.getUsername())
+                .password(replica.getPassword());
+
+        if (replica.getDriverClassName() != null) {
+            builder.driverClassName(replica.getDriverClassName());
+        }
+
+        HikariDataSource dataSource = builder.build();
+
+        dataSource.setPoolName(key);
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(properties.getHealthCheckTimeout().toMillis());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Транзакции только для чтения выполняются на репликах по очереди, остальные — на основной базе.
+// Реплика, не прошедшая проверку ReplicaHealthChecker, пропускается; если исправных реплик нет
+// или пользователь недавно изменял данные, чтение тоже выполняется на основной базе.
+// Ключ выбирается при первом обращении к соединению, поэтому источник нужно оборачивать
+// в LazyConnectionDataSourceProxy: признак readOnly транзакции к этому моменту уже установлен
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile Counter replicaReads;
+    private volatile Counter readYourWritesReads;
+    private volatile Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadYourWritesTracker tracker) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.tracker = tracker;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public boolean isReplicaHealthy(String key) {
+        return healthyReplicas.contains(key);
+    }
+
+    // Возвращает true, если состояние реплики изменилось
+    public boolean setReplicaHealthy(String key, boolean healthy) {
+        return healthy ? healthyReplicas.add(key) : healthyReplicas.remove(key);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+
+        if (tracker.isPrimaryRequired()) {
+            increment(readYourWritesReads);
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        String[] keys = replicas.keySet().toArray(new String[0]);
+
+        for (int attempt = 0; attempt < size; attempt++) {
+            String key = keys[Math.floorMod(nextReplica.getAndIncrement(), size)];
+
+            if (healthyReplicas.contains(key)) {
+                increment(replicaReads);
+                return key;
+            }
+        }
+
+        increment(fallbackReads);
+        return PRIMARY;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        replicaReads = readsCounter(registry, "replica");
+        readYourWritesReads = readsCounter(registry, "primary-read-your-writes");
+        fallbackReads = readsCounter(registry, "primary-fallback");
+        Gauge.builder("server.datasource.replicas.healthy", healthyReplicas, Set::size)
+                .description("Число реплик, на которые сейчас направляются чтения")
+                .register(registry);
+
+        // Пулы реплик не являются бинами, поэтому Spring Boot не подключает к ним метрики hikaricp сам.
+        // Пул запускается при первом запросе соединения, до этого метрики можно подключить
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof HikariDataSource) {
+                HikariDataSource hikari = (HikariDataSource) replica;
+
+                if (hikari.getMetricsTrackerFactory() == null && hikari.getMetricRegistry() == null) {
+                    hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) replica).close();
+                } catch (Exception exception) {
+                    log.warn("Не удалось закрыть пул соединений реплики: {}", exception.getMessage());
+                }
+            }
+        }
+    }
+
+    private Counter readsCounter(MeterRegistry registry, String target) {
+        return Counter.builder("server.datasource.reads")
+                .description("Транзакции только для чтения по месту выполнения")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    private void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
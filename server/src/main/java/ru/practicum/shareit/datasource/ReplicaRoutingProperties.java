@@ -0,0 +1,47 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    // Реплики, на которые направляются транзакции только для чтения
+    private List<Replica> replicas = new ArrayList<>();
+
+    // После изменяющего запроса чтения пользователя столько времени выполняются на основной базе
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    // Реплика с отставанием больше этого исключается до следующей проверки
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    // Запрос, возвращающий отставание реплики в секундах; если не задан, проверяется только соединение
+    private String lagQuery;
+
+    // Сколько ждать ответа реплики при проверке
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// Отставание реплики запрашивается у неё самой запросом lagQuery,
+// без запроса проверяется только то, что реплика отвечает
+@RequiredArgsConstructor
+public class SqlReplicaLagProbe implements ReplicaLagProbe {
+
+    private final String lagQuery;
+    private final Duration timeout;
+
+    @Override
+    public Duration measureLag(DataSource replica) throws SQLException {
+        int timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                if (!connection.isValid(timeoutSeconds)) {
+                    throw new SQLException("Реплика не ответила за " + timeout);
+                }
+                return Duration.ZERO;
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(timeoutSeconds);
+
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    double seconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                    return Duration.ofMillis(Math.round(seconds * 1000));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.idempotency.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.exception.ErrorResponse;
+import ru.practicum.shareit.idempotency.model.IdempotentRequest;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+import ru.practicum.shareit.item.controller.ItemController;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+// Обработка заголовка Idempotency-Key: первый запрос с ключом выполняется и его ответ сохраняется,
+// повторы того же запроса получают сохранённый ответ и не создают сущности ещё раз
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("POST", "PATCH");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !IDEMPOTENT_METHODS.contains(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Неверный запрос!",
+                    "Ключ идемпотентности должен быть непустым и не длиннее " + MAX_KEY_LENGTH + " символов");
+            return;
+        }
+
+        String userId = request.getHeader(ItemController.HEADER_NAME_CONTAINS_OWNER_ID);
+        String id = (userId == null ? "" : userId) + ":" + key;
+        String path = request.getRequestURI();
+        Optional<IdempotentRequest> existing;
+
+        try {
+            existing = idempotencyService.begin(id, request.getMethod(), path);
+        } catch (DataIntegrityViolationException exception) {
+            writeInProgress(response, key);
+            return;
+        }
+
+        if (existing.isPresent()) {
+            replay(existing.get(), request, response, key);
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+
+        try {
+            filterChain.doFilter(request, responseWrapper);
+
+            if (responseWrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                idempotencyService.complete(id, responseWrapper.getStatus(), responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray());
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyService.abandon(id);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    // Повтор запроса: возвращается сохранённый ответ, если повторяется тот же самый запрос
+    private void replay(IdempotentRequest idempotentRequest, HttpServletRequest request,
+                        HttpServletResponse response, String key) throws IOException {
+        if (!idempotentRequest.getMethod().equals(request.getMethod())
+                || !idempotentRequest.getPath().equals(request.getRequestURI())) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Неверный запрос!",
+                    "Ключ идемпотентности " + key + " уже использован для запроса "
+                            + idempotentRequest.getMethod() + " " + idempotentRequest.getPath());
+            return;
+        }
+
+        if (idempotentRequest.getStatus() == null) {
+            writeInProgress(response, key);
+            return;
+        }
+
+        log.debug("Повтор запроса {} {} с ключом идемпотентности {}", request.getMethod(), request.getRequestURI(), key);
+        response.setStatus(idempotentRequest.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+
+        if (idempotentRequest.getContentType() != null) {
+            response.setContentType(idempotentRequest.getContentType());
+        }
+
+        if (idempotentRequest.getBody() != null) {
+            response.setContentLength(idempotentRequest.getBody().length);
+            response.getOutputStream().write(idempotentRequest.getBody());
+        }
+    }
+
+    private void writeInProgress(HttpServletResponse response, String key) throws IOException {
+        writeError(response, HttpStatus.CONFLICT, "Запрос уже выполняется!",
+                "Запрос с ключом идемпотентности " + key + " ещё не завершён");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String error, String description)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(error, description));
+    }
+}
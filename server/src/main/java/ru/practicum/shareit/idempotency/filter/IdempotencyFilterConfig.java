@@ -0,0 +1,22 @@
+package ru.practicum.shareit.idempotency.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.idempotency.service.IdempotencyService;
+
+// Ключи идемпотентности принимаются для запросов на создание и изменение сущностей
+@Configuration
+public class IdempotencyFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService,
+                                                                       ObjectMapper objectMapper) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, objectMapper));
+
+        registration.addUrlPatterns("/bookings/*", "/items/*", "/requests/*", "/users/*");
+        return registration;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.idempotency.model;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+// Запрос на изменение, выполненный с заголовком Idempotency-Key, и сохранённый ответ на него.
+// Пока запрос выполняется, status не заполнен, а leaseExpires - срок, после которого ключ считается
+// брошенным (экземпляр сервера упал, не успев сохранить ответ) и повтор может выполнить запрос заново
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@Table(name = "idempotent_requests")
+public class IdempotentRequest {
+
+    // Идентификатор пользователя и ключ идемпотентности через двоеточие
+    @Id
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "method", nullable = false)
+    private String method;
+
+    @Column(name = "path", nullable = false)
+    private String path;
+
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @ToString.Exclude
+    @Column(name = "body")
+    private byte[] body;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+
+    @Column(name = "lease_expires")
+    private LocalDateTime leaseExpires;
+}
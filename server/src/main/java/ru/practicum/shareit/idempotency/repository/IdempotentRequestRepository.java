@@ -0,0 +1,21 @@
+package ru.practicum.shareit.idempotency.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.idempotency.model.IdempotentRequest;
+
+import java.time.LocalDateTime;
+
+public interface IdempotentRequestRepository extends JpaRepository<IdempotentRequest, String> {
+
+    @Modifying
+    @Query("delete from IdempotentRequest r where r.created < ?1")
+    int deleteCreatedBefore(LocalDateTime created);
+
+    // Захват ключа, аренда которого истекла: из нескольких одновременных повторов обновит запись только один
+    @Modifying(clearAutomatically = true)
+    @Query("update IdempotentRequest r set r.leaseExpires = ?3, r.created = ?2 "
+            + "where r.id = ?1 and r.status is null and r.leaseExpires < ?2")
+    int reclaimExpiredLease(String id, LocalDateTime now, LocalDateTime leaseExpires);
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.idempotency.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyCleanupJob {
+
+    private final IdempotencyService idempotencyService;
+
+    // Фоновое удаление сохранённых ответов с истёкшим сроком хранения
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-delay-ms:600000}")
+    public void deleteExpired() {
+        int deleted = idempotencyService.deleteExpired();
+
+        if (deleted > 0) {
+            log.info("Удалено {} сохранённых ответов на запросы с ключом идемпотентности", deleted);
+        }
+    }
+}
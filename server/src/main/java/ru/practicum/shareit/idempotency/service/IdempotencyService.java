@@ -0,0 +1,16 @@
+package ru.practicum.shareit.idempotency.service;
+
+import ru.practicum.shareit.idempotency.model.IdempotentRequest;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+
+    Optional<IdempotentRequest> begin(String id, String method, String path);
+
+    void complete(String id, int status, String contentType, byte[] body);
+
+    void abandon(String id);
+
+    int deleteExpired();
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.idempotency.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.model.IdempotentRequest;
+import ru.practicum.shareit.idempotency.repository.IdempotentRequestRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotentRequestRepository idempotentRequestRepository;
+
+    @Value("${shareit.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${shareit.idempotency.lease:30s}")
+    private Duration lease;
+
+    // Регистрация запроса с ключом идемпотентности. Если запрос с таким ключом уже был,
+    // возвращается он; одновременная регистрация того же ключа завершается нарушением
+    // первичного ключа (DataIntegrityViolationException). Незавершённый запрос с истёкшей арендой
+    // повтор того же запроса забирает себе и выполняет заново
+    @Override
+    public Optional<IdempotentRequest> begin(String id, String method, String path) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotentRequest> existing = idempotentRequestRepository.findById(id);
+
+        if (existing.isPresent() && !isExpired(existing.get())) {
+            IdempotentRequest idempotentRequest = existing.get();
+
+            if (isAbandoned(idempotentRequest, now, method, path)
+                    && idempotentRequestRepository.reclaimExpiredLease(id, now, now.plus(lease)) == 1) {
+                return Optional.empty();
+            }
+            return existing;
+        }
+
+        existing.ifPresent(idempotentRequestRepository::delete);
+        idempotentRequestRepository.flush();
+        idempotentRequestRepository.saveAndFlush(
+                new IdempotentRequest(id, method, path, null, null, null, now, now.plus(lease))
+        );
+        return Optional.empty();
+    }
+
+    // Сохранение ответа, который будет возвращаться на повторы запроса
+    @Override
+    public void complete(String id, int status, String contentType, byte[] body) {
+        idempotentRequestRepository.findById(id).ifPresent(idempotentRequest -> {
+            idempotentRequest.setStatus(status);
+            idempotentRequest.setContentType(contentType);
+            idempotentRequest.setBody(body);
+            idempotentRequest.setLeaseExpires(null);
+        });
+    }
+
+    // Запрос завершился ошибкой сервера: ключ освобождается, чтобы запрос можно было повторить
+    @Override
+    public void abandon(String id) {
+        idempotentRequestRepository.findById(id).ifPresent(idempotentRequestRepository::delete);
+    }
+
+    // Удаление запросов, срок хранения которых истёк
+    @Override
+    public int deleteExpired() {
+        return idempotentRequestRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private static boolean isAbandoned(IdempotentRequest idempotentRequest, LocalDateTime now, String method,
+                                       String path) {
+        return idempotentRequest.getStatus() == null
+                && idempotentRequest.getLeaseExpires() != null
+                && idempotentRequest.getLeaseExpires().isBefore(now)
+                && idempotentRequest.getMethod().equals(method)
+                && idempotentRequest.getPath().equals(path);
+    }
+
+    private boolean isExpired(IdempotentRequest idempotentRequest) {
+        return idempotentRequest.getCreated().isBefore(LocalDateTime.now().minus(ttl));
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -101,7 +103,28 @@ public class ItemMapper {
                 .lastBooking(lastBookingToAdd)
                 .nextBooking(nextBookingToAdd)
                 .comments(commentDtoRegister)
-                .request(item.getRequest())
+                .request(toDetachedItemRequest(item.getRequest()))
                 .build();
     }
+
+    // Связи сущностей ленивые: в ответ вместо прокси Hibernate попадает сам запрос,
+    // а если его автор ещё не загружен, то копия запроса с загруженным автором
+    private static ItemRequest toDetachedItemRequest(ItemRequest request) {
+        if (request == null) {
+            return null;
+        }
+
+        ItemRequest itemRequest = (ItemRequest) Hibernate.unproxy(request);
+
+        if (!(itemRequest.getRequester() instanceof HibernateProxy)) {
+            return itemRequest;
+        }
+
+        return new ItemRequest(
+                itemRequest.getId(),
+                itemRequest.getDescription(),
+                (User) Hibernate.unproxy(itemRequest.getRequester()),
+                itemRequest.getCreated()
+        );
+    }
 }
@@ -6,6 +6,7 @@ import ru.practicum.shareit.user.model.User;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
+// Граф Comment.author: в CommentDto попадает имя автора комментария
 @Builder
 @Getter
 @Setter
@@ -13,9 +14,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @ToString
 @Entity
+@NamedEntityGraph(name = Comment.WITH_AUTHOR, attributeNodes = @NamedAttributeNode("author"))
 @Table(name = "comments")
 public class Comment {
 
+    public static final String WITH_AUTHOR = "Comment.author";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -25,12 +29,12 @@ public class Comment {
     private String text;
 
     @ToString.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
 
     @ToString.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     private User author;
 
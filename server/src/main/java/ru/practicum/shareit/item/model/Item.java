@@ -1,11 +1,14 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
 
+// Граф Item.request: ItemInfoDto отдаёт запрос на вещь целиком, вместе с его автором
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,9 +16,15 @@ import javax.persistence.*;
 @Setter
 @ToString
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
+@NamedEntityGraph(name = Item.WITH_REQUEST,
+        attributeNodes = @NamedAttributeNode(value = "request", subgraph = "request"),
+        subgraphs = @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requester")))
 @Table(name = "items")
 public class Item {
 
+    public static final String WITH_REQUEST = "Item.request";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -31,12 +40,12 @@ public class Item {
     private Boolean available;
 
     @ToString.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
     @ToString.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 }
@@ -1,11 +1,23 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(Comment.WITH_AUTHOR)
     List<Comment> findCommentsByItemId(Long itemId);
+
+    @EntityGraph(Comment.WITH_AUTHOR)
+    List<Comment> findCommentsByItemIdIn(Collection<Long> itemIds);
+
+    @Query("select c.id from Comment c where c.author.id = ?1 or c.item.id in " +
+            "(select i.id from Item i where i.owner.id = ?1)")
+    List<Long> findCommentIdsByAuthorOrItemOwner(Long userId, Pageable pageable);
 }
@@ -1,25 +1,50 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
+// Поиск и ответы на запрос выбираются сразу в ItemDto, без загрузки сущностей.
+// Вещи пользователей, помеченных на удаление, в них не попадают
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    String ITEM_DTO = "select new ru.practicum.shareit.item.dto.ItemDto("
+            + "i.id, i.name, i.description, i.available, i.request.id) from Item i";
+
+    @EntityGraph(Item.WITH_REQUEST)
     List<Item> findItemsByOwnerIdOrderByIdAsc(Long userId, Pageable pageable);
 
-    List<Item> findItemsByRequestId(Long requestId);
+    @Query(ITEM_DTO + " where i.request.id = ?1 and i.owner.deleted = false")
+    List<ItemDto> findItemsByRequestId(Long requestId);
+
+    @Query(ITEM_DTO + " where i.request.id in ?1 and i.owner.deleted = false")
+    List<ItemDto> findItemsByRequestIdIn(Collection<Long> requestIds);
 
     @Query("select count(i) from Item i where i.owner.id=?1")
     Integer findCountOfUserItems(Long userId);
 
-    @Query("select i from Item i" +
+    @Query(ITEM_DTO +
             " where (lower(i.name) like %:word%" +
             " or lower(i.description) like %:word%)" +
-            " and i.available = true")
-    List<Item> findItemsByNameOrDescription(@Param("word") String word, Pageable pageable);
+            " and i.available = true" +
+            " and i.owner.deleted = false")
+    List<ItemDto> findItemsByNameOrDescription(@Param("word") String word, Pageable pageable);
+
+    @Query("select i.id from Item i where i.owner.id = ?1")
+    List<Long> findItemIdsByOwnerId(Long userId, Pageable pageable);
+
+    @Query("select i.id from Item i where i.request.requester.id = ?1")
+    List<Long> findItemIdsByRequesterId(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("update Item i set i.request = null where i.id in ?1")
+    int detachItemsFromRequests(List<Long> itemIds);
 }
@@ -6,6 +6,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
@@ -26,5 +27,7 @@ public interface ItemService {
 
     List<ItemDto> findItemsByRequestId(Long requestId);
 
+    List<ItemDto> findItemsByRequestIds(Collection<Long> requestIds);
+
     Integer findCountOfUserItems(Long userId);
 }
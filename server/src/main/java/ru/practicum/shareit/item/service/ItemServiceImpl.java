@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.ServiceMetricsConfig;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.UserMapper;
@@ -27,15 +29,22 @@ import ru.practicum.shareit.utility.FromSizeRequest;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = ServiceMetricsConfig.SERVICE_TIMER, histogram = true)
 public class ItemServiceImpl implements ItemService {
 
+    private static final Pageable FIRST = FromSizeRequest.of(0, 1);
+
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
@@ -72,14 +81,14 @@ public class ItemServiceImpl implements ItemService {
         return ItemMapper.toItemInfoDto(
                 item,
                 bookingRepository.findLastOwnerBooking(
-                                item.getId(), userId, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                                item.getId(), userId, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), FIRST
                         ).stream()
-                        .min(Comparator.comparing(Booking::getEnd))
+                        .findFirst()
                         .orElse(null),
                 bookingRepository.findNextOwnerBooking(
-                                item.getId(), userId, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                                item.getId(), userId, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), FIRST
                         ).stream()
-                        .max(Comparator.comparing(Booking::getStart))
+                        .findFirst()
                         .orElse(null),
                 commentRepository.findCommentsByItemId(itemId).stream()
                         .map(comment -> ItemMapper.toCommentDto(comment, comment.getAuthor()))
@@ -87,28 +96,39 @@ public class ItemServiceImpl implements ItemService {
         );
     }
 
-    // Просмотр владельцем списка всех его вещей
+    // Просмотр владельцем списка всех его вещей: бронирования и комментарии
+    // выбираются сразу для всей страницы вещей, а не отдельными запросами для каждой
     @Override
     public List<ItemInfoDto> findAllUserItems(Long userId, Integer from, Integer size) {
         Pageable pageable = FromSizeRequest.of(from, size);
         List<Item> items = itemRepository.findItemsByOwnerIdOrderByIdAsc(userId, pageable);
 
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        // База возвращает по одному бронированию на вещь, несколько только при совпадении дат
+        Map<Long, Booking> lastBookings = bookingRepository.findLastBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        BinaryOperator.minBy(Comparator.comparing(Booking::getId))));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        BinaryOperator.minBy(Comparator.comparing(Booking::getId))));
+        Map<Long, List<CommentDto>> comments = commentRepository.findCommentsByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(comment -> ItemMapper.toCommentDto(comment, comment.getAuthor()),
+                                Collectors.toList())));
+
         return items.stream()
                 .map(item -> ItemMapper.toItemInfoDto(
                         item,
-                        bookingRepository.findLastBooking(
-                                        item.getId(), LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
-                                ).stream()
-                                .min(Comparator.comparing(Booking::getEnd))
-                                .orElse(null),
-                        bookingRepository.findNextBooking(
-                                        item.getId(), LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
-                                ).stream()
-                                .max(Comparator.comparing(Booking::getStart))
-                                .orElse(null),
-                        commentRepository.findCommentsByItemId(item.getId()).stream()
-                                .map(comment -> ItemMapper.toCommentDto(comment, comment.getAuthor()))
-                                .collect(Collectors.toList())))
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.getOrDefault(item.getId(), new ArrayList<>())))
                 .collect(Collectors.toList());
     }
 
@@ -123,9 +143,7 @@ public class ItemServiceImpl implements ItemService {
 
         String word = text.toLowerCase();
 
-        return itemRepository.findItemsByNameOrDescription(word, pageable).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return itemRepository.findItemsByNameOrDescription(word, pageable);
     }
 
     // Редактирование вещи
@@ -164,9 +182,15 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemDto> findItemsByRequestId(Long requestId) {
-        return itemRepository.findItemsByRequestId(requestId).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return itemRepository.findItemsByRequestId(requestId);
+    }
+
+    @Override
+    public List<ItemDto> findItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemRepository.findItemsByRequestIdIn(requestIds);
     }
 
     @Override
@@ -189,7 +213,9 @@ public class ItemServiceImpl implements ItemService {
         if (itemId == null) {
             throw new ValidationException(exceptionMessage);
         }
+        // Вещи пользователя, помеченного на удаление, недоступны ещё до того, как UserDeletionJob их удалит
         return itemRepository.findById(itemId)
+                .filter(item -> !item.getOwner().isDeleted())
                 .orElseThrow(() -> new EntityNotFoundException(exceptionMessage));
     }
 
@@ -208,7 +234,7 @@ public class ItemServiceImpl implements ItemService {
         if (requestId == null) {
             return null;
         }
-        return itemRequestRepository.findItemRequestById(requestId);
+        return itemRequestRepository.findById(requestId).orElse(null);
     }
 
     private Item getFilledItem(ItemDto itemDto, Long userId) {
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Число запросов к базе и время удержания соединения на один HTTP-запрос
+// с теми же тегами method и uri, что и у http.server.requests
+@RequiredArgsConstructor
+public class DatabaseMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_METRIC = "server.requests.statements";
+    public static final String CONNECTION_HOLD_METRIC = "server.requests.connection.hold";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestDatabaseMetrics metrics = RequestDatabaseMetrics.start();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDatabaseMetrics.finish(metrics);
+            record(request, metrics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestDatabaseMetrics metrics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("Запросы к базе на один HTTP-запрос")
+                .baseUnit("statements")
+                .tags(tags)
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50, 100)
+                .register(meterRegistry)
+                .record(metrics.getStatements());
+        Timer.builder(CONNECTION_HOLD_METRIC)
+                .description("Время, пока запрос держал соединение с базой")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(metrics.getConnectionHoldNanos(), TimeUnit.NANOSECONDS);
+    }
+}
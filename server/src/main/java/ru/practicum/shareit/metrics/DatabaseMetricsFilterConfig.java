@@ -0,0 +1,20 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Метрики обращений к базе собираются для запросов к API, но не к actuator
+@Configuration
+public class DatabaseMetricsFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<DatabaseMetricsFilter> databaseMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<DatabaseMetricsFilter> registration =
+                new FilterRegistrationBean<>(new DatabaseMetricsFilter(meterRegistry));
+
+        registration.addUrlPatterns("/bookings/*", "/items/*", "/requests/*", "/users/*");
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Hibernate создаёт слушатель для каждой сессии (свойство hibernate.session.events.auto):
+// он считает выполненные запросы и пакеты и время, пока сессия держала соединение
+public class DatabaseMetricsSessionListener extends BaseSessionEventListener {
+
+    private long connectionAcquiredAt = -1;
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        connectionAcquiredAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionReleaseEnd() {
+        RequestDatabaseMetrics metrics = RequestDatabaseMetrics.current();
+
+        if (metrics != null && connectionAcquiredAt >= 0) {
+            metrics.addConnectionHold(System.nanoTime() - connectionAcquiredAt);
+        }
+        connectionAcquiredAt = -1;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        addStatement();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        addStatement();
+    }
+
+    private void addStatement() {
+        RequestDatabaseMetrics metrics = RequestDatabaseMetrics.current();
+
+        if (metrics != null) {
+            metrics.addStatement();
+        }
+    }
+}
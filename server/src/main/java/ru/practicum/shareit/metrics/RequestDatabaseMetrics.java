@@ -0,0 +1,57 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+// Обращения к базе при обработке одного HTTP-запроса. Счётчики привязаны к потоку запроса:
+// их заполняет DatabaseMetricsSessionListener, а в метрики записывает DatabaseMetricsFilter.
+// Замеры могут быть вложенными (тесты считают запросы вокруг вызова через MockMvc):
+// обращения во вложенном замере учитываются и во внешнем
+@Getter
+public class RequestDatabaseMetrics {
+
+    private static final ThreadLocal<RequestDatabaseMetrics> CURRENT = new ThreadLocal<>();
+
+    @Getter(AccessLevel.NONE)
+    private final RequestDatabaseMetrics outer;
+
+    private int statements;
+
+    private long connectionHoldNanos;
+
+    private RequestDatabaseMetrics(RequestDatabaseMetrics outer) {
+        this.outer = outer;
+    }
+
+    public static RequestDatabaseMetrics start() {
+        RequestDatabaseMetrics metrics = new RequestDatabaseMetrics(CURRENT.get());
+
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    public static void finish(RequestDatabaseMetrics metrics) {
+        if (metrics.outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(metrics.outer);
+        }
+    }
+
+    // Вне HTTP-запроса (например, в фоновых задачах) счётчиков нет
+    static RequestDatabaseMetrics current() {
+        return CURRENT.get();
+    }
+
+    void addStatement() {
+        for (RequestDatabaseMetrics metrics = this; metrics != null; metrics = metrics.outer) {
+            metrics.statements++;
+        }
+    }
+
+    void addConnectionHold(long nanos) {
+        for (RequestDatabaseMetrics metrics = this; metrics != null; metrics = metrics.outer) {
+            metrics.connectionHoldNanos += nanos;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Время выполнения методов сервисов, отмеченных @Timed(SERVICE_TIMER): метрика с тегами class и method.
+// Время методов репозиториев Spring Boot пишет сам в spring.data.repository.invocations
+@Configuration
+public class ServiceMetricsConfig {
+
+    public static final String SERVICE_TIMER = "server.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
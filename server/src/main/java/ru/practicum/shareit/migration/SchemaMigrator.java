@@ -0,0 +1,176 @@
+package ru.practicum.shareit.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+// Версионные миграции схемы вместо выполнения schema.sql при каждом старте.
+// Скрипты db/migration/V<версия>__<описание>.sql применяются по возрастанию версии один раз,
+// применённые версии с контрольными суммами хранятся в schema_version.
+// Запись о версии вставляется в той же транзакции, что и скрипт: экземпляр, стартующий одновременно
+// с другим, ждёт на вставке и пропускает версию, как только первый её зафиксирует.
+// Скрипты V1 и V2 идемпотентны, чтобы на базе, созданной прежним schema.sql, они прошли без ошибок
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaMigrator implements InitializingBean {
+
+    private static final String LOCATION = "classpath*:db/migration/V*__*.sql";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final DataSource dataSource;
+
+    @Override
+    public void afterPropertiesSet() throws IOException, SQLException {
+        List<Migration> migrations = findMigrations();
+
+        try (Connection connection = dataSource.getConnection()) {
+            createHistoryTable(connection);
+
+            Map<Integer, Long> applied = findApplied(connection);
+
+            for (Migration migration : migrations) {
+                Long checksum = applied.get(migration.version);
+
+                if (checksum == null) {
+                    apply(connection, migration);
+                } else if (checksum != migration.checksum) {
+                    throw new IllegalStateException("Скрипт " + migration.script.getFilename()
+                            + " изменён после применения, изменения схемы оформляются новой версией");
+                }
+            }
+        }
+    }
+
+    private List<Migration> findMigrations() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            Matcher matcher = SCRIPT_NAME.matcher(String.valueOf(resource.getFilename()));
+
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Имя скрипта миграции должно иметь вид V<версия>__<описание>.sql: "
+                        + resource.getFilename());
+            }
+            migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    resource, checksum(resource)));
+        }
+        migrations.sort(Comparator.comparingInt(migration -> migration.version));
+
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version == migrations.get(i - 1).version) {
+                throw new IllegalStateException("Несколько скриптов миграции версии " + migrations.get(i).version);
+            }
+        }
+        return migrations;
+    }
+
+    private void createHistoryTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INTEGER NOT NULL, "
+                    + "description VARCHAR(255) NOT NULL, "
+                    + "script VARCHAR(255) NOT NULL, "
+                    + "checksum BIGINT NOT NULL, "
+                    + "installed_on TIMESTAMP WITHOUT TIME ZONE NOT NULL, "
+                    + "CONSTRAINT pk_schema_version PRIMARY KEY (version))");
+        }
+    }
+
+    private Map<Integer, Long> findApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+
+        connection.setAutoCommit(false);
+
+        try {
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO schema_version "
+                    + "(version, description, script, checksum, installed_on) VALUES (?, ?, ?, ?, ?)")) {
+                statement.setInt(1, migration.version);
+                statement.setString(2, migration.description);
+                statement.setString(3, migration.script.getFilename());
+                statement.setLong(4, migration.checksum);
+                statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                connection.rollback();
+
+                if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    log.info("Миграция {} уже применена другим экземпляром", migration.script.getFilename());
+                    return;
+                }
+                throw e;
+            }
+
+            try {
+                ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script, StandardCharsets.UTF_8));
+                connection.commit();
+            } catch (RuntimeException | SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            log.info("Применена миграция {}", migration.script.getFilename());
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Контрольная сумма не зависит от окончаний строк, чтобы checkout под Windows не ломал проверку
+    private static long checksum(Resource resource) throws IOException {
+        try (InputStream stream = resource.getInputStream()) {
+            CRC32 crc = new CRC32();
+
+            crc.update(StreamUtils.copyToString(stream, StandardCharsets.UTF_8).replace("\r\n", "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Migration {
+
+        private final int version;
+        private final String description;
+        private final Resource script;
+        private final long checksum;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.migration;
+
+import org.springframework.boot.sql.init.dependency.AbstractBeansOfTypeDatabaseInitializerDetector;
+
+import java.util.Set;
+
+// Отмечает SchemaMigrator как инициализатор базы: EntityManagerFactory, JdbcTemplate и другие бины,
+// зависящие от инициализации базы, создаются после применения миграций.
+// Зарегистрирован в META-INF/spring.factories
+public class SchemaMigratorDetector extends AbstractBeansOfTypeDatabaseInitializerDetector {
+
+    @Override
+    protected Set<Class<?>> getDatabaseInitializerBeanTypes() {
+        return Set.of(SchemaMigrator.class);
+    }
+}
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -20,4 +21,9 @@ public class ItemRequestDto {
     private LocalDateTime created;
 
     private List<ItemDto> items;
+
+    // Конструктор для выборки запросов сразу в DTO, ответы на запрос добавляются отдельно
+    public ItemRequestDto(Long id, String description, LocalDateTime created) {
+        this(id, description, created, new ArrayList<>());
+    }
 }
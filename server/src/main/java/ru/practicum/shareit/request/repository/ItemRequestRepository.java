@@ -1,13 +1,25 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
+// Списки запросов выбираются сразу в ItemRequestDto, без загрузки сущностей
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findItemRequestsByRequester_IdOrderByCreatedDesc(Long requesterId);
+    String ITEM_REQUEST_DTO = "select new ru.practicum.shareit.request.dto.ItemRequestDto("
+            + "r.id, r.description, r.created) from ItemRequest r";
 
-    ItemRequest findItemRequestById(Long requestId);
+    @Query(ITEM_REQUEST_DTO + " where r.requester.id = ?1 order by r.created desc")
+    List<ItemRequestDto> findItemRequestsByRequester_IdOrderByCreatedDesc(Long requesterId);
+
+    @Query(ITEM_REQUEST_DTO + " where r.requester.id <> ?1")
+    List<ItemRequestDto> findOtherUsersItemRequests(Long userId, Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.requester.id = ?1")
+    List<Long> findItemRequestIdsByRequesterId(Long requesterId, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -8,6 +9,7 @@ import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.ServiceMetricsConfig;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -18,12 +20,15 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.utility.FromSizeRequest;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = ServiceMetricsConfig.SERVICE_TIMER, histogram = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
@@ -47,11 +52,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestDto> findUserRequests(Long userId) {
         userService.findUserById(userId);
-        return itemRequestRepository.findItemRequestsByRequester_IdOrderByCreatedDesc(userId).stream()
-                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(
-                        itemRequest,
-                        itemService.findItemsByRequestId(itemRequest.getId())))
-                .collect(Collectors.toList());
+        return addItems(itemRequestRepository.findItemRequestsByRequester_IdOrderByCreatedDesc(userId));
     }
 
     // Получение списка запросов, созданных другими пользователями
@@ -59,12 +60,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> findAllRequests(Integer from, Integer size, Long userId) {
         Pageable pageable = FromSizeRequest.of(from, size);
 
-        return itemRequestRepository.findAll(pageable).stream()
-                .filter(itemRequest -> !itemRequest.getRequester().getId().equals(userId))
-                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(
-                        itemRequest,
-                        itemService.findItemsByRequestId(itemRequest.getId())))
-                .collect(Collectors.toList());
+        return addItems(itemRequestRepository.findOtherUsersItemRequests(userId, pageable));
     }
 
     // Получение данных об одном конкретном запросе вместе с данными об ответах на него
@@ -78,6 +74,19 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toItemRequestDto(itemRequest, itemDtos);
     }
 
+    // Добавление к запросам вещей, созданных в ответ на них: вещи выбираются одним запросом на все запросы
+    private List<ItemRequestDto> addItems(List<ItemRequestDto> itemRequestDtos) {
+        List<Long> requestIds = itemRequestDtos.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> items = itemService.findItemsByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+
+        itemRequestDtos.forEach(itemRequestDto ->
+                itemRequestDto.setItems(items.getOrDefault(itemRequestDto.getId(), new ArrayList<>())));
+        return itemRequestDtos;
+    }
+
     private ItemRequest getRequestIfExists(Long requestId) {
         String exceptionMessage = "Запрос с id " + requestId + " не найден!";
 
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserDeletionProgressDto;
+import ru.practicum.shareit.user.service.UserDeletionJob;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "userdeletions")
+public class UserDeletionEndpoint {
+
+    private final UserDeletionJob userDeletionJob;
+
+    // Просмотр хода фонового удаления пользователей: /actuator/userdeletions
+    @ReadOperation
+    public List<UserDeletionProgressDto> findProgress() {
+        return userDeletionJob.findProgress();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class UserDeletionProgressDto {
+
+    private Long userId;
+
+    private String stage;
+
+    private long deletedComments;
+
+    private long deletedBookings;
+
+    private long detachedAnswers;
+
+    private long deletedItems;
+
+    private long deletedRequests;
+
+    private boolean finished;
+
+    private LocalDateTime started;
+
+    private LocalDateTime updated;
+
+    public UserDeletionProgressDto(Long userId) {
+        this.userId = userId;
+        this.started = LocalDateTime.now();
+        this.updated = started;
+    }
+}
@@ -1,7 +1,15 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    List<User> findAllByDeletedFalse();
+
+    @Query("select u.id from User u where u.deleted = true order by u.id")
+    List<Long> findIdsOfDeletedUsers();
 }
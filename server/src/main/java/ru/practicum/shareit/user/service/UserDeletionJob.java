@@ -0,0 +1,106 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserDeletionProgressDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDeletionJob {
+
+    private final UserDeletionService userDeletionService;
+    private final Map<Long, UserDeletionProgressDto> progressRegister = new ConcurrentHashMap<>();
+
+    @Value("${shareit.user-deletion.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    // Порции, которые ещё можно выполнить в текущем запуске
+    private int remainingBatches;
+
+    // Фоновое удаление данных пользователей, помеченных на удаление. За один запуск выполняется
+    // не больше maxBatchesPerRun порций, остальное удаляется в следующих запусках
+    @Scheduled(fixedDelayString = "${shareit.user-deletion.delay-ms:5000}")
+    public synchronized void deleteMarkedUsers() {
+        LocalDateTime expired = LocalDateTime.now().minusDays(1L);
+
+        progressRegister.values().removeIf(progress -> progress.isFinished() && progress.getUpdated().isBefore(expired));
+        remainingBatches = maxBatchesPerRun;
+
+        for (Long userId : userDeletionService.findUsersToDelete()) {
+            if (remainingBatches <= 0) {
+                log.debug("Лимит порций запуска исчерпан, удаление продолжится в следующем запуске");
+                break;
+            }
+
+            try {
+                deleteUserData(userId);
+            } catch (RuntimeException exception) {
+                log.warn("Удаление данных пользователя с id={} будет продолжено позже: {}",
+                        userId, exception.getMessage());
+            }
+        }
+    }
+
+    // Получение состояния удаления пользователей, обработанных с момента запуска приложения
+    public List<UserDeletionProgressDto> findProgress() {
+        return new ArrayList<>(progressRegister.values());
+    }
+
+    private void deleteUserData(Long userId) {
+        UserDeletionProgressDto progress = progressRegister.computeIfAbsent(userId, UserDeletionProgressDto::new);
+
+        // Этапы, завершённые в прошлых запусках, заканчиваются первой же пустой порцией
+        boolean dataDeleted = runStage(progress, "COMMENTS", () -> userDeletionService.deleteComments(userId),
+                count -> progress.setDeletedComments(progress.getDeletedComments() + count))
+                && runStage(progress, "BOOKINGS", () -> userDeletionService.deleteBookings(userId),
+                count -> progress.setDeletedBookings(progress.getDeletedBookings() + count))
+                && runStage(progress, "ANSWERS", () -> userDeletionService.detachRequestAnswers(userId),
+                count -> progress.setDetachedAnswers(progress.getDetachedAnswers() + count))
+                && runStage(progress, "ITEMS", () -> userDeletionService.deleteItems(userId),
+                count -> progress.setDeletedItems(progress.getDeletedItems() + count))
+                && runStage(progress, "REQUESTS", () -> userDeletionService.deleteRequests(userId),
+                count -> progress.setDeletedRequests(progress.getDeletedRequests() + count));
+
+        if (!dataDeleted) {
+            return;
+        }
+
+        progress.setStage("USER");
+        userDeletionService.deleteUser(userId);
+        progress.setFinished(true);
+        progress.setUpdated(LocalDateTime.now());
+        log.info("Удаление пользователя с id={} завершено: {}", userId, progress);
+    }
+
+    // Этап повторяется порциями, пока очередная порция не окажется пустой (этап завершён)
+    // или не кончится лимит порций запуска (этап продолжится в следующем запуске)
+    private boolean runStage(UserDeletionProgressDto progress, String stage, IntSupplier batch, IntConsumer counter) {
+        progress.setStage(stage);
+
+        while (remainingBatches > 0) {
+            remainingBatches--;
+
+            int count = batch.getAsInt();
+
+            if (count == 0) {
+                return true;
+            }
+            counter.accept(count);
+            progress.setUpdated(LocalDateTime.now());
+            log.debug("Удаление пользователя с id={}: этап {}, удалено {}", progress.getUserId(), stage, count);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user.service;
+
+import java.util.List;
+
+public interface UserDeletionService {
+
+    List<Long> findUsersToDelete();
+
+    int deleteComments(Long userId);
+
+    int deleteBookings(Long userId);
+
+    int detachRequestAnswers(Long userId);
+
+    int deleteItems(Long userId);
+
+    int deleteRequests(Long userId);
+
+    void deleteUser(Long userId);
+}
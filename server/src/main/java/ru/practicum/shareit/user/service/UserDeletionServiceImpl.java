@@ -0,0 +1,101 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+// Каждый метод удаляет не больше batchSize строк в отдельной короткой транзакции,
+// поэтому после перезапуска удаление продолжается с того места, где остановилось
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserDeletionServiceImpl implements UserDeletionService {
+
+    private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    @Value("${shareit.user-deletion.batch-size:100}")
+    private int batchSize;
+
+    // Получение идентификаторов пользователей, помеченных на удаление
+    @Override
+    public List<Long> findUsersToDelete() {
+        return userRepository.findIdsOfDeletedUsers();
+    }
+
+    // Удаление комментариев пользователя и комментариев к его вещам
+    @Override
+    @Transactional
+    public int deleteComments(Long userId) {
+        List<Long> ids = commentRepository.findCommentIdsByAuthorOrItemOwner(userId, nextBatch());
+
+        commentRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    // Удаление бронирований пользователя и бронирований его вещей
+    @Override
+    @Transactional
+    public int deleteBookings(Long userId) {
+        List<Long> ids = bookingRepository.findBookingIdsByBookerOrItemOwner(userId, nextBatch());
+
+        bookingRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    // Отвязка чужих вещей, добавленных в ответ на запросы пользователя
+    @Override
+    @Transactional
+    public int detachRequestAnswers(Long userId) {
+        List<Long> ids = itemRepository.findItemIdsByRequesterId(userId, nextBatch());
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return itemRepository.detachItemsFromRequests(ids);
+    }
+
+    // Удаление вещей пользователя
+    @Override
+    @Transactional
+    public int deleteItems(Long userId) {
+        List<Long> ids = itemRepository.findItemIdsByOwnerId(userId, nextBatch());
+
+        itemRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    // Удаление запросов пользователя
+    @Override
+    @Transactional
+    public int deleteRequests(Long userId) {
+        List<Long> ids = itemRequestRepository.findItemRequestIdsByRequesterId(userId, nextBatch());
+
+        itemRequestRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    // Удаление самого пользователя после удаления всех связанных с ним данных
+    @Override
+    @Transactional
+    public void deleteUser(Long userId) {
+        userRepository.deleteAllByIdInBatch(List.of(userId));
+    }
+
+    private Pageable nextBatch() {
+        return PageRequest.of(0, batchSize);
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.metrics.ServiceMetricsConfig;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -16,8 +18,12 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = ServiceMetricsConfig.SERVICE_TIMER, histogram = true)
 public class UserServiceImpl implements UserService {
 
+    // Не является адресом почты, поэтому не совпадёт с почтой нового пользователя
+    public static final String DELETED_USER_EMAIL_PREFIX = "deleted:";
+
     private final UserRepository userRepository;
 
     // Добавление нового пользователя
@@ -38,7 +44,7 @@ public class UserServiceImpl implements UserService {
     // Получение списка всех пользователей
     @Override
     public List<UserDto> findAllUsers() {
-        return userRepository.findAll().stream()
+        return userRepository.findAllByDeletedFalse().stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
@@ -63,12 +69,16 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDto(userRepository.save(userToUpdate));
     }
 
-    // Удаление пользователя
+    // Удаление пользователя: пользователь помечается удалённым сразу,
+    // а его комментарии, бронирования, вещи и запросы удаляет UserDeletionJob.
+    // Почта освобождается сразу, чтобы с ней можно было зарегистрироваться снова
     @Override
     @Transactional
     public void deleteUser(Long userId) {
-        User user = UserMapper.toUser(findUserById(userId));
-        userRepository.delete(user);
+        final User user = getUserIfExists(userId);
+        user.setDeleted(true);
+        user.setEmail(DELETED_USER_EMAIL_PREFIX + userId);
+        userRepository.save(user);
     }
 
     private User getUserIfExists(Long userId) {
@@ -78,6 +88,7 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException(exceptionMessage);
         }
         return userRepository.findById(userId)
+                .filter(user -> !user.isDeleted())
                 .orElseThrow(() -> new EntityNotFoundException(exceptionMessage));
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.utility;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Бинарный формат Smile для запросов шлюза (Accept: application/x-jackson-smile).
+// Настройки маппера те же, что и у JSON, поэтому даты передаются так же, строками ISO-8601
+@Configuration
+public class SmileConverterConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
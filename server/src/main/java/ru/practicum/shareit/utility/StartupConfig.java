@@ -0,0 +1,35 @@
+package ru.practicum.shareit.utility;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.datasource.ReplicaHealthChecker;
+import ru.practicum.shareit.idempotency.service.IdempotencyCleanupJob;
+import ru.practicum.shareit.migration.SchemaMigrator;
+import ru.practicum.shareit.user.service.UserDeletionJob;
+
+// Настройки быстрого старта (профиль startup)
+@Configuration
+public class StartupConfig {
+
+    // При spring.main.lazy-initialization=true бины создаются при первом обращении. Фоновые задачи
+    // регистрируются в планировщике только при создании бина, а миграции должны пройти до первого запроса,
+    // поэтому они создаются при старте
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(SchemaMigrator.class, UserDeletionJob.class,
+                IdempotencyCleanupJob.class, ReplicaHealthChecker.class);
+    }
+
+    // Обучающий запуск при сборке CDS-архива (профиль Maven cds): приложение завершается сразу после старта,
+    // когда нужные для запуска классы уже загружены и попали в список для архива
+    @Bean
+    @ConditionalOnProperty("shareit.startup.exit-when-ready")
+    public ApplicationListener<ApplicationReadyEvent> exitWhenReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
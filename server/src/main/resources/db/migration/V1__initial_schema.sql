@@ -2,6 +2,7 @@ CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
+    deleted BOOLEAN DEFAULT FALSE NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT uq_user_email UNIQUE (email)
 );
@@ -50,3 +51,14 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_comment_on_author FOREIGN KEY (author_id) REFERENCES users (id),
     CONSTRAINT fk_comment_on_item FOREIGN KEY (item_id) REFERENCES items (id)
 );
+
+CREATE TABLE IF NOT EXISTS idempotent_requests (
+    id VARCHAR(320) NOT NULL,
+    method VARCHAR(16) NOT NULL,
+    path VARCHAR(2048) NOT NULL,
+    status INTEGER,
+    content_type VARCHAR(255),
+    body BYTEA,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_idempotent_request PRIMARY KEY (id)
+);
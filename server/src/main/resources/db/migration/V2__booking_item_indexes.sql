@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS ix_booking_item_end ON bookings (item_id, end_date_time);
+CREATE INDEX IF NOT EXISTS ix_booking_item_start ON bookings (item_id, start_date_time);
@@ -0,0 +1 @@
+ALTER TABLE idempotent_requests ADD COLUMN IF NOT EXISTS lease_expires TIMESTAMP WITHOUT TIME ZONE;
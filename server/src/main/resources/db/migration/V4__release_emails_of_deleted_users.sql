@@ -0,0 +1,2 @@
+-- Users deleted before their email was released on deletion: the email can be registered again
+UPDATE users SET email = CONCAT('deleted:', id) WHERE deleted = TRUE;
@@ -1,19 +1,27 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.migration.SchemaMigrator;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utility.EntityCacheConfig;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -22,6 +30,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
+@Import({EntityCacheConfig.class, SchemaMigrator.class})
 class BookingRepositoryTest {
 
     private final LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
@@ -38,6 +47,9 @@ class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User owner;
     private User booker;
     private Item itemOne;
@@ -74,27 +86,28 @@ class BookingRepositoryTest {
         bookingRepository.deleteAll();
     }
 
+    // Из прошедших бронирований вещи выбирается одно, как в findLastOwnerBooking
     @Test
-    void findLastBooking() {
-        expectedAmountOfBookings = 2;
+    void findLastBookings() {
+        expectedAmountOfBookings = 1;
         Long itemOneId = itemOne.getId();
 
-        List<Booking> result = bookingRepository.findLastBooking(itemOneId, date);
+        List<Booking> result = bookingRepository.findLastBookings(List.of(itemOneId, itemTwo.getId()), date);
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
+        assertEquals(bookingOne.getId(), result.get(0).getId());
         assertEquals(itemOneId, result.get(0).getItem().getId());
-        assertEquals(itemOneId, result.get(1).getItem().getId());
-        assertTrue(result.get(0).getStart().isBefore(date));
-        assertTrue(result.get(1).getStart().isBefore(date));
     }
 
     @Test
-    void findNextBooking() {
+    void findNextBookings() {
         expectedAmountOfBookings = 1;
         Long itemTwoId = itemTwo.getId();
 
-        List<Booking> result = bookingRepository.findNextBooking(itemTwoId, date);
+        createBooking(date.plusDays(4L), date.plusDays(5L), itemTwo, booker, BookingStatus.WAITING);
+
+        List<Booking> result = bookingRepository.findNextBookings(List.of(itemOne.getId(), itemTwoId), date);
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
@@ -107,13 +120,13 @@ class BookingRepositoryTest {
         expectedAmountOfBookings = 1;
         Long ownerId = owner.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findOwnerBookingsWithStartIsAfter(ownerId, date, Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
         assertEquals(bookingFour.getId(), result.get(0).getId());
-        assertEquals(ownerId, result.get(0).getItem().getOwner().getId());
+        assertEquals(ownerId, findOwnerId(result.get(0)));
         assertTrue(result.get(0).getStart().isAfter(date));
     }
 
@@ -122,7 +135,7 @@ class BookingRepositoryTest {
         expectedAmountOfBookings = 1;
         Long bookerId = booker.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findUserBookingsWithStartIsAfter(bookerId, date, Pageable.unpaged());
 
         assertNotNull(result);
@@ -137,13 +150,13 @@ class BookingRepositoryTest {
         expectedAmountOfBookings = 1;
         Long ownerId = owner.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findCurrentOwnerBookings(ownerId, date, Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
         assertEquals(bookingThree.getId(), result.get(0).getId());
-        assertEquals(ownerId, result.get(0).getItem().getOwner().getId());
+        assertEquals(ownerId, findOwnerId(result.get(0)));
         assertTrue(result.get(0).getStart().isBefore(date));
         assertTrue(result.get(0).getEnd().isAfter(date));
     }
@@ -153,7 +166,7 @@ class BookingRepositoryTest {
         expectedAmountOfBookings = 1;
         Long bookerId = booker.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findCurrentUserBookings(bookerId, date, Pageable.unpaged());
 
         assertNotNull(result);
@@ -169,13 +182,13 @@ class BookingRepositoryTest {
         expectedAmountOfBookings = 2;
         Long ownerId = owner.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findOwnerBookingsWithEndIsBefore(ownerId, date, Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
-        assertEquals(ownerId, result.get(0).getItem().getOwner().getId());
-        assertEquals(ownerId, result.get(1).getItem().getOwner().getId());
+        assertEquals(ownerId, findOwnerId(result.get(0)));
+        assertEquals(ownerId, findOwnerId(result.get(1)));
         assertTrue(result.get(0).getEnd().isBefore(date));
         assertTrue(result.get(1).getEnd().isBefore(date));
         assertEquals(bookingOne.getId(), result.get(1).getId());
@@ -187,7 +200,7 @@ class BookingRepositoryTest {
         expectedAmountOfBookings = 2;
         Long bookerId = booker.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findUserBookingsWithEndIsBefore(bookerId, date, Pageable.unpaged());
 
         assertNotNull(result);
@@ -204,13 +217,13 @@ class BookingRepositoryTest {
         status = BookingStatus.PAST;
         Long ownerId = owner.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findOwnerBookingsByState(ownerId, status, Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
-        assertEquals(ownerId, result.get(0).getItem().getOwner().getId());
-        assertEquals(ownerId, result.get(1).getItem().getOwner().getId());
+        assertEquals(ownerId, findOwnerId(result.get(0)));
+        assertEquals(ownerId, findOwnerId(result.get(1)));
         assertEquals(status, result.get(0).getStatus());
         assertEquals(status, result.get(1).getStatus());
     }
@@ -221,7 +234,7 @@ class BookingRepositoryTest {
         status = BookingStatus.CURRENT;
         Long bookerId = booker.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findUserBookingsByState(bookerId, status, Pageable.unpaged());
 
         assertNotNull(result);
@@ -235,15 +248,15 @@ class BookingRepositoryTest {
         expectedAmountOfBookings = 4;
         Long ownerId = owner.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findOwnerBookings(ownerId, Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
-        assertEquals(ownerId, result.get(0).getItem().getOwner().getId());
-        assertEquals(ownerId, result.get(1).getItem().getOwner().getId());
-        assertEquals(ownerId, result.get(2).getItem().getOwner().getId());
-        assertEquals(ownerId, result.get(3).getItem().getOwner().getId());
+        assertEquals(ownerId, findOwnerId(result.get(0)));
+        assertEquals(ownerId, findOwnerId(result.get(1)));
+        assertEquals(ownerId, findOwnerId(result.get(2)));
+        assertEquals(ownerId, findOwnerId(result.get(3)));
         assertTrue(result.get(0).getId() > result.get(1).getId());
         assertTrue(result.get(1).getId() > result.get(2).getId());
         assertTrue(result.get(2).getId() > result.get(3).getId());
@@ -254,7 +267,7 @@ class BookingRepositoryTest {
         expectedAmountOfBookings = 4;
         Long bookerId = booker.getId();
 
-        List<Booking> result = bookingRepository
+        List<BookingInfoDto> result = bookingRepository
                 .findUserBookings(bookerId, Pageable.unpaged());
 
         assertNotNull(result);
@@ -275,7 +288,7 @@ class BookingRepositoryTest {
         Long itemId = itemOne.getId();
 
         List<Booking> result = bookingRepository
-                .findLastOwnerBooking(itemId, ownerId, date);
+                .findLastOwnerBooking(itemId, ownerId, date, Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
@@ -285,6 +298,7 @@ class BookingRepositoryTest {
         assertEquals(ownerId, result.get(1).getItem().getOwner().getId());
         assertTrue(result.get(0).getEnd().isBefore(date));
         assertTrue(result.get(1).getEnd().isBefore(date));
+        assertFalse(result.get(0).getEnd().isAfter(result.get(1).getEnd()));
     }
 
     @Test
@@ -294,7 +308,7 @@ class BookingRepositoryTest {
         Long itemId = itemTwo.getId();
 
         List<Booking> result = bookingRepository
-                .findNextOwnerBooking(itemId, ownerId, date);
+                .findNextOwnerBooking(itemId, ownerId, date, Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(expectedAmountOfBookings, result.size());
@@ -314,6 +328,69 @@ class BookingRepositoryTest {
         assertEquals(expectedAmount, result);
     }
 
+    // Списки бронирований выбираются одним запросом сразу в DTO, сущности не загружаются
+    @Test
+    void findOwnerBookingsSelectsDtosWithoutLoadingEntities() {
+        Statistics statistics = clearPersistenceContext();
+
+        List<BookingInfoDto> result = bookingRepository.findOwnerBookings(owner.getId(), Pageable.unpaged());
+
+        assertEquals(4, result.size());
+        assertEquals(bookingFour.getId(), result.get(0).getId());
+        assertEquals(booker.getId(), result.get(0).getBooker().getId());
+        assertEquals(itemTwo.getId(), result.get(0).getItem().getId());
+        assertEquals(itemTwo.getName(), result.get(0).getItem().getName());
+        assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(0L, statistics.getEntityLoadCount());
+    }
+
+    // Для lastBooking и nextBooking вещи нужен только идентификатор автора, связи не загружаются
+    @Test
+    void findLastBookingsLoadsOnlyBookings() {
+        Statistics statistics = clearPersistenceContext();
+
+        List<Booking> result = bookingRepository.findLastBookings(List.of(itemOne.getId()), date);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(1L, statistics.getEntityLoadCount());
+        assertFalse(Hibernate.isInitialized(result.get(0).getItem()));
+        assertEquals(booker.getId(), result.get(0).getBooker().getId());
+        assertFalse(Hibernate.isInitialized(result.get(0).getBooker()));
+    }
+
+    @Test
+    void findByIdFetchesItem() {
+        Statistics statistics = clearPersistenceContext();
+
+        Booking result = bookingRepository.findById(bookingThree.getId()).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(result.getItem()));
+        assertFalse(Hibernate.isInitialized(result.getBooker()));
+        assertEquals(owner.getId(), result.getItem().getOwner().getId());
+        assertEquals(booker.getId(), result.getBooker().getId());
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(2L, statistics.getEntityLoadCount());
+    }
+
+    // Сбрасывает контекст персистентности, чтобы связи загружались так же, как в новом запросе
+    private Statistics clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        statistics.clear();
+        return statistics;
+    }
+
+    private Long findOwnerId(BookingInfoDto booking) {
+        return itemRepository.findById(booking.getItem().getId()).orElseThrow().getOwner().getId();
+    }
+
     private User createUser(String name, String email) {
         User user = new User();
         user.setName(name);
@@ -87,6 +87,21 @@ class BookingServiceImplTest {
         assertThat(expectedMessage, equalTo(exception.getMessage()));
     }
 
+    @Test
+    void shouldThrowExceptionWhenItemOwnerIsDeleted() {
+        Long itemId = itemOne.getId();
+        BookingDto bookingDto = makeBookingDto(date.plusDays(2L), date.plusDays(3L), itemId);
+
+        userService.deleteUser(userOne.getId());
+        em.flush();
+
+        Exception exception = assertThrows(
+                EntityNotFoundException.class, () -> bookingService.createBooking(bookingDto, userTwo.getId())
+        );
+
+        assertThat(exception.getMessage(), equalTo("Предмет с id " + itemId + " не найден!"));
+    }
+
     @Test
     void shouldThrowExceptionWhenStartIsAfterEnd() {
         String expectedMessage = "Даты указаны неверно!";
@@ -0,0 +1,193 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Реплика — отдельная база H2 с той же схемой, в которую ничего не реплицируется:
+// запись, сделанная на основной базе, видна только при чтении с основной базы.
+// Без @Transactional: в транзакции теста все запросы выполнялись бы на основной базе
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = {
+        "shareit.datasource.routing.enabled=true",
+        "shareit.datasource.routing.replicas[0].url=jdbc:h2:mem:replica;"
+                + "INIT=RUNSCRIPT FROM 'classpath:db/migration/V1__initial_schema.sql'",
+        "shareit.datasource.routing.replicas[0].username=test",
+        "shareit.datasource.routing.replicas[0].password=test",
+        "shareit.datasource.routing.max-lag=1s",
+        "shareit.datasource.routing.read-your-writes-window=1m",
+        "shareit.datasource.routing.health-check-delay-ms=3600000"
+})
+class ReplicaRoutingDataSourceTest {
+
+    private static final String ITEM_JSON = "{\"name\": \"replicated\", \"description\": \"lagging\", \"available\": true}";
+
+    private final MockMvc mockMvc;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ReplicaHealthChecker replicaHealthChecker;
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final WebApplicationContext context;
+    private final AtomicReference<Duration> replicaLag;
+    private UserDto owner;
+    private UserDto reader;
+
+    @BeforeEach
+    void setUp() {
+        replicaLag.set(Duration.ZERO);
+        replicaHealthChecker.checkReplicas();
+        owner = userService.createUser(new UserDto(null, "owner", "owner@replica.com"));
+        reader = userService.createUser(new UserDto(null, "reader", "reader@replica.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.findItemsByOwnerIdOrderByIdAsc(owner.getId(), Pageable.unpaged()).forEach(itemRepository::delete);
+        userRepository.deleteById(owner.getId());
+        userRepository.deleteById(reader.getId());
+    }
+
+    @Test
+    void shouldReadFromReplicaInReadOnlyTransaction() {
+        assertThat(replicaRoutingDataSource.isReplicaHealthy("replica-0"), equalTo(true));
+        assertThat(userService.findAllUsers(), not(hasItem(hasProperty("id", equalTo(owner.getId())))));
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryAndOtherUsersFromReplica() throws Exception {
+        mockMvc.perform(post("/items")
+                        .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId())
+                        .content(ITEM_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "replicated")
+                        .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "replicated")
+                        .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, reader.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    // Второй экземпляр сервера с той же базой и своим ReadYourWritesTracker, ничего не знающим о записи:
+    // окно чтения с основной базы доходит до него только через cookie, которую передаёт шлюз
+    @Test
+    void shouldReadOwnWritesOnAnotherInstanceWithWriteMarker() throws Exception {
+        MockMvc anotherInstance = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(new ReadYourWritesFilter(new ReadYourWritesTracker(Duration.ofMinutes(1))))
+                .build();
+
+        Cookie lastWrite = mockMvc.perform(post("/items")
+                        .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId())
+                        .content(ITEM_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReadYourWritesFilter.LAST_WRITE_COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+
+        anotherInstance.perform(get("/items/search")
+                        .param("text", "replicated")
+                        .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        anotherInstance.perform(get("/items/search")
+                        .param("text", "replicated")
+                        .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId())
+                        .cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void shouldIgnoreExpiredWriteMarker() throws Exception {
+        long expired = System.currentTimeMillis() - Duration.ofMinutes(2).toMillis();
+
+        mockMvc.perform(get("/users")
+                        .cookie(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, String.valueOf(expired)))
+                        .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, reader.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", not(hasItem(owner.getId().intValue()))));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLagsBehind() {
+        replicaLag.set(Duration.ofSeconds(5));
+        replicaHealthChecker.checkReplicas();
+
+        assertThat(replicaRoutingDataSource.isReplicaHealthy("replica-0"), equalTo(false));
+        assertThat(userService.findAllUsers(), hasItem(hasProperty("id", equalTo(owner.getId()))));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsUnavailable() {
+        replicaLag.set(null);
+        replicaHealthChecker.checkReplicas();
+
+        assertThat(replicaRoutingDataSource.isReplicaHealthy("replica-0"), equalTo(false));
+        assertThat(userService.findAllUsers(), hasItem(hasProperty("id", equalTo(owner.getId()))));
+    }
+
+    // Заглушка вместо запроса к реплике: отставание задаётся тестом, null означает недоступную реплику
+    @TestConfiguration
+    static class LagInjectionConfig {
+
+        @Bean
+        AtomicReference<Duration> replicaLag() {
+            return new AtomicReference<>(Duration.ZERO);
+        }
+
+        @Bean
+        @Primary
+        ReplicaLagProbe lagInjectingProbe(AtomicReference<Duration> replicaLag) {
+            return replica -> {
+                Duration lag = replicaLag.get();
+
+                if (lag == null) {
+                    throw new SQLException("Реплика недоступна");
+                }
+                return lag;
+            };
+        }
+    }
+}
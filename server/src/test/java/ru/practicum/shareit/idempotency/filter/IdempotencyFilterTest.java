@@ -0,0 +1,135 @@
+package ru.practicum.shareit.idempotency.filter;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.model.IdempotentRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Transactional
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+class IdempotencyFilterTest {
+
+    private static final String USER_JSON = "{\"name\": \"user\", \"email\": \"user@email.com\"}";
+
+    private final EntityManager em;
+    private final MockMvc mockMvc;
+
+    @Test
+    void retryWithSameKeyReturnsStoredResponse() throws Exception {
+        String first = mockMvc.perform(post("/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .content(USER_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        String retry = mockMvc.perform(post("/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .content(USER_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<User> users = em.createQuery("select u from User u where u.email = :email", User.class)
+                .setParameter("email", "user@email.com")
+                .getResultList();
+
+        assertThat(retry, equalTo(first));
+        assertThat(users, hasSize(1));
+    }
+
+    @Test
+    void sameKeyForAnotherRequestIsRejected() throws Exception {
+        mockMvc.perform(post("/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-2")
+                        .content(USER_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/users/1")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-2")
+                        .content("{\"name\": \"updated\"}")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.description", containsString("POST /users")));
+    }
+
+    @Test
+    void retryTakesOverKeyWithExpiredLease() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+
+        em.persist(new IdempotentRequest(":key-3", "POST", "/users", null, null, null, now.minusMinutes(1),
+                now.minusSeconds(1)));
+        em.flush();
+
+        mockMvc.perform(post("/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-3")
+                        .content(USER_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        IdempotentRequest stored = em.find(IdempotentRequest.class, ":key-3");
+
+        assertThat(stored.getStatus(), equalTo(200));
+        assertThat(stored.getLeaseExpires(), nullValue());
+    }
+
+    @Test
+    void retryOfRequestInProgressIsRejected() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+
+        em.persist(new IdempotentRequest(":key-4", "POST", "/users", null, null, null, now, now.plusMinutes(1)));
+        em.flush();
+
+        mockMvc.perform(post("/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-4")
+                        .content(USER_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+
+        Long users = em.createQuery("select count(u) from User u", Long.class).getSingleResult();
+
+        assertThat(users, equalTo(0L));
+    }
+
+    @Test
+    void requestWithoutKeyIsNotStored() throws Exception {
+        mockMvc.perform(post("/users")
+                        .content(USER_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        Long stored = em.createQuery("select count(r) from IdempotentRequest r", Long.class).getSingleResult();
+
+        assertThat(stored, equalTo(0L));
+    }
+}
@@ -1,23 +1,34 @@
 package ru.practicum.shareit.item.repository;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.migration.SchemaMigrator;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utility.EntityCacheConfig;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
+@Import({EntityCacheConfig.class, SchemaMigrator.class})
 class CommentRepositoryTest {
 
     private final LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
@@ -31,6 +42,9 @@ class CommentRepositoryTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User owner;
     private User author;
     private Item item;
@@ -61,6 +75,36 @@ class CommentRepositoryTest {
         assertEquals(comment.getItem().getId(), result.get(0).getItem().getId());
     }
 
+
+    // Комментарии выбираются вместе с авторами, вещь не загружается
+    @Test
+    void findCommentsByItemIdFetchesAuthor() {
+        Statistics statistics = clearPersistenceContext();
+
+        List<Comment> result = commentRepository.findCommentsByItemId(item.getId());
+
+        assertEquals(1, result.size());
+        assertTrue(Hibernate.isInitialized(result.get(0).getAuthor()));
+        assertFalse(Hibernate.isInitialized(result.get(0).getItem()));
+        assertEquals(author.getName(),
+                ItemMapper.toCommentDto(result.get(0), result.get(0).getAuthor()).getAuthorName());
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(2L, statistics.getEntityLoadCount());
+    }
+
+    // Сбрасывает контекст персистентности, чтобы связи загружались так же, как в новом запросе
+    private Statistics clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        statistics.clear();
+        return statistics;
+    }
+
     private User createUser(String name, String email) {
         User user = new User();
         user.setName(name);
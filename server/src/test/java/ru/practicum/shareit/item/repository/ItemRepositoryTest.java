@@ -1,25 +1,40 @@
 package ru.practicum.shareit.item.repository;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.migration.SchemaMigrator;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utility.EntityCacheConfig;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
+@Import({EntityCacheConfig.class, SchemaMigrator.class})
 class ItemRepositoryTest {
 
     @Autowired
@@ -31,6 +46,9 @@ class ItemRepositoryTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User owner;
     private User requester;
     private ItemRequest request;
@@ -72,12 +90,12 @@ class ItemRepositoryTest {
 
     @Test
     void findItemsByRequestId() {
-        List<Item> result = itemRepository.findItemsByRequestId(request.getId());
+        List<ItemDto> result = itemRepository.findItemsByRequestId(request.getId());
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(result.get(0).getId(), itemOne.getId());
-        assertEquals(result.get(0).getRequest().getId(), itemOne.getRequest().getId());
+        assertEquals(result.get(0).getRequestId(), itemOne.getRequest().getId());
     }
 
     @Test
@@ -91,11 +109,46 @@ class ItemRepositoryTest {
     @Test
     void findItemsByNameOrDescription() {
         String word = "дрель";
-        List<Item> result = itemRepository.findItemsByNameOrDescription(word, Pageable.unpaged());
+        List<ItemDto> result = itemRepository.findItemsByNameOrDescription(word, Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(itemTwo.getId(), result.get(0).getId());
+        assertNull(result.get(0).getRequestId());
+    }
+
+
+    // Вещи выбираются одним запросом вместе с запросом на вещь и его автором, владелец не загружается
+    @Test
+    void findItemsByOwnerIdOrderByIdAscFetchesRequestWithRequester() {
+        Statistics statistics = clearPersistenceContext();
+
+        List<Item> result = itemRepository.findItemsByOwnerIdOrderByIdAsc(owner.getId(), Pageable.unpaged());
+
+        assertEquals(2, result.size());
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(4L, statistics.getEntityLoadCount());
+        assertFalse(Hibernate.isInitialized(result.get(0).getOwner()));
+        assertTrue(Hibernate.isInitialized(result.get(0).getRequest()));
+        assertTrue(Hibernate.isInitialized(result.get(0).getRequest().getRequester()));
+
+        ItemInfoDto itemInfoDto = ItemMapper.toItemInfoDto(result.get(0), null, null, Collections.emptyList());
+
+        assertEquals(requester.getName(), itemInfoDto.getRequest().getRequester().getName());
+        assertEquals(1L, statistics.getPrepareStatementCount());
+    }
+
+    // Сбрасывает контекст персистентности, чтобы связи загружались так же, как в новом запросе
+    private Statistics clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        statistics.clear();
+        return statistics;
     }
 
     private User createUser(String name, String email) {
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +22,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.QueryBudget;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -42,6 +44,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class ItemServiceImplTest {
 
     private final EntityManager em;
+    private final ObjectMapper objectMapper;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final UserService userService;
@@ -160,6 +163,20 @@ class ItemServiceImplTest {
         );
     }
 
+    // Связи ленивые: после очистки контекста запрос на вещь и его автор приходят не прокси и сериализуются в JSON
+    @Test
+    void shouldFindItemByIdWithLazyRequest() throws Exception {
+        em.flush();
+        em.clear();
+
+        ItemInfoDto result = itemService.findItemById(itemThree.getId(), userTwo.getId());
+        String json = objectMapper.writeValueAsString(result);
+
+        assertEquals(ItemRequest.class, result.getRequest().getClass());
+        assertEquals(User.class, result.getRequest().getRequester().getClass());
+        assertThat(json, containsString("\"name\":\"" + userTwo.getName() + "\""));
+    }
+
     @Test
     void shouldThrowExceptionWhenItemDoesNotExist() {
         Long itemId = 999L;
@@ -203,6 +220,26 @@ class ItemServiceImplTest {
         }
     }
 
+    // Бронирования и комментарии выбираются для всех вещей сразу: число запросов не растёт с числом вещей
+    @Test
+    void shouldFindAllUserItemsWithinQueryBudget() throws Exception {
+        makeComment("comment about the itemOne", itemOne, userTwo, date);
+        makeComment("comment about the itemTwo", itemTwo, userTwo, date);
+        makeBooking(date.minusDays(2), date.minusDays(1), itemOne, userTwo, BookingStatus.APPROVED);
+        makeBooking(date.plusDays(1), date.plusDays(2), itemTwo, userTwo, BookingStatus.WAITING);
+        em.flush();
+        em.clear();
+
+        List<ItemInfoDto> items = QueryBudget.assertAtMost(4,
+                () -> itemService.findAllUserItems(userOne.getId(), 0, 10));
+
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getLastBooking(), notNullValue());
+        assertThat(items.get(1).getNextBooking(), notNullValue());
+        assertThat(items.get(0).getComments(), hasSize(1));
+        assertThat(items.get(1).getComments(), hasSize(1));
+    }
+
     @Test
     void shouldFindItemsByNameOrDescription() {
         String text = "item";
@@ -354,6 +391,18 @@ class ItemServiceImplTest {
         ));
     }
 
+    @Test
+    void shouldHideItemsOfDeletedOwner() {
+        userService.deleteUser(userOne.getId());
+        em.flush();
+
+        List<ItemDto> items = itemService.findItemsByNameOrDescription("item", 0, 10);
+
+        assertThat(items, not(hasItem(hasProperty("id", equalTo(itemOne.getId())))));
+        assertThat(itemService.findItemsByRequestId(requestOne.getId()), empty());
+        assertThrows(EntityNotFoundException.class, () -> itemService.findItemById(itemOne.getId(), userTwo.getId()));
+    }
+
     @Test
     void shouldFindItemsByRequestId() {
         List<Item> items = List.of(itemOne, itemTwo);
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Без @Transactional: транзакция теста держала бы одно соединение на все запросы
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+class DatabaseMetricsFilterTest {
+
+    private final MockMvc mockMvc;
+    private final MeterRegistry meterRegistry;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.createUser(new UserDto(null, "measured", "measured@email.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void shouldRecordStatementsAndConnectionHoldPerRequest() throws Exception {
+        DistributionSummary statements = meterRegistry.find(DatabaseMetricsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/users").summary();
+        long countBefore = statements == null ? 0 : statements.count();
+        double totalBefore = statements == null ? 0 : statements.totalAmount();
+
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        statements = meterRegistry.get(DatabaseMetricsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/users").summary();
+        Timer connectionHold = meterRegistry.get(DatabaseMetricsFilter.CONNECTION_HOLD_METRIC)
+                .tags("method", "GET", "uri", "/users").timer();
+
+        assertThat(statements.count() - countBefore, equalTo(1L));
+        assertThat(statements.totalAmount() - totalBefore, equalTo(1.0));
+        assertThat(connectionHold.totalTime(TimeUnit.NANOSECONDS), greaterThan(0.0));
+    }
+
+    @Test
+    void shouldTimeServiceAndRepositoryMethods() throws Exception {
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        Timer service = meterRegistry.get(ServiceMetricsConfig.SERVICE_TIMER)
+                .tags("method", "findAllUsers").timer();
+        Timer repository = meterRegistry.get("spring.data.repository.invocations")
+                .tags("repository", "UserRepository", "method", "findAllByDeletedFalse").timer();
+
+        assertThat(service.count(), greaterThan(0L));
+        assertThat(repository.count(), greaterThan(0L));
+    }
+
+    @Test
+    void shouldExposeMetricsInPrometheusFormat() throws Exception {
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("server_service_seconds_bucket"),
+                        containsString("server_requests_statements_bucket"),
+                        containsString("hikaricp_connections_acquire_seconds_bucket"),
+                        containsString("hikaricp_connections_active"),
+                        containsString("hikaricp_connections_pending"))));
+    }
+}
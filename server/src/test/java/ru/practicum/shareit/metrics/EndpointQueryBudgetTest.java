@@ -0,0 +1,269 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserDeletionJob;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Бюджеты запросов к базе для всех эндпоинтов сервера. У владельца несколько вещей, у каждой
+// есть бронирования, комментарии и запрос, на который она отвечает: запросы «на каждую вещь»
+// сразу выводят эндпоинт за бюджет. Новый эндпоинт без бюджета не проходит проверку покрытия
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+class EndpointQueryBudgetTest {
+
+    private static final int ITEMS = 3;
+
+    private static final Map<String, Integer> BUDGETS = Map.ofEntries(
+            Map.entry("POST /users", 1),
+            Map.entry("GET /users/{userId}", 1),
+            Map.entry("GET /users", 1),
+            Map.entry("PATCH /users/{userId}", 1),
+            Map.entry("DELETE /users/{userId}", 1),
+            Map.entry("POST /items", 3),
+            Map.entry("POST /items/{itemId}/comment", 4),
+            Map.entry("GET /items/{itemId}", 4),
+            Map.entry("GET /items", 4),
+            Map.entry("GET /items/search", 1),
+            Map.entry("PATCH /items/{itemId}", 1),
+            Map.entry("POST /bookings", 8),
+            Map.entry("GET /bookings/{bookingId}", 1),
+            Map.entry("GET /bookings", 3),
+            Map.entry("GET /bookings/owner", 2),
+            Map.entry("PATCH /bookings/{bookingId}", 2),
+            Map.entry("POST /requests", 3),
+            Map.entry("GET /requests", 2),
+            Map.entry("GET /requests/all", 2),
+            Map.entry("GET /requests/{requestId}", 3)
+    );
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final UserService userService;
+    private final UserDeletionJob userDeletionJob;
+    private final ApplicationContext applicationContext;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private final List<ItemRequest> requests = new ArrayList<>();
+    private User owner;
+    private User booker;
+    private User requester;
+    private Booking futureBooking;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        owner = saveUser("owner");
+        booker = saveUser("booker");
+        requester = saveUser("requester");
+
+        for (int i = 0; i < ITEMS; i++) {
+            ItemRequest request = itemRequestRepository.save(
+                    new ItemRequest(null, "request " + i, requester, now.minusDays(2)));
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("budget item " + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+
+            requests.add(request);
+            items.add(item);
+            bookingRepository.save(Booking.builder()
+                    .start(now.minusDays(2))
+                    .end(now.minusDays(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            futureBooking = bookingRepository.save(Booking.builder()
+                    .start(now.plusDays(1))
+                    .end(now.plusDays(2))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .item(item)
+                    .author(booker)
+                    .created(now.minusHours(1))
+                    .build());
+        }
+    }
+
+    // Данные пользователей теста удаляет фоновая задача удаления, как и в работе сервера
+    @AfterEach
+    void tearDown() {
+        for (Long userId : userIds) {
+            userRepository.findById(userId)
+                    .filter(user -> !user.isDeleted())
+                    .ifPresent(user -> userService.deleteUser(userId));
+        }
+        for (int run = 0; run < 10 && !userRepository.findIdsOfDeletedUsers().isEmpty(); run++) {
+            userDeletionJob.deleteMarkedUsers();
+        }
+    }
+
+    @Test
+    void everyEndpointHasBudget() {
+        RequestMappingHandlerMapping handlerMapping = applicationContext.getBean(
+                "requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        Set<String> endpoints = new TreeSet<>();
+
+        for (RequestMappingInfo info : handlerMapping.getHandlerMethods().keySet()) {
+            for (String pattern : info.getPatternValues()) {
+                if (!pattern.startsWith("/error")) {
+                    info.getMethodsCondition().getMethods()
+                            .forEach(method -> endpoints.add(method.name() + " " + pattern));
+                }
+            }
+        }
+
+        assertThat(endpoints, equalTo(new TreeSet<>(BUDGETS.keySet())));
+    }
+
+    @Test
+    void userEndpointsStayWithinBudget() throws Exception {
+        String created = perform("POST /users", post("/users")
+                .content("{\"name\": \"created\", \"email\": \"created@budget.com\"}"))
+                .andReturn().getResponse().getContentAsString();
+        Long createdId = objectMapper.readTree(created).get("id").asLong();
+
+        userIds.add(createdId);
+        perform("GET /users/{userId}", get("/users/{userId}", owner.getId()));
+        perform("GET /users", get("/users"));
+        perform("PATCH /users/{userId}", patch("/users/{userId}", createdId)
+                .content("{\"name\": \"renamed\"}"));
+        perform("DELETE /users/{userId}", delete("/users/{userId}", createdId));
+    }
+
+    @Test
+    void itemEndpointsStayWithinBudget() throws Exception {
+        Long itemId = items.get(0).getId();
+
+        perform("POST /items", post("/items")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId())
+                .content("{\"name\": \"new\", \"description\": \"new item\", \"available\": true, "
+                        + "\"requestId\": " + requests.get(0).getId() + "}"));
+        perform("POST /items/{itemId}/comment", post("/items/{itemId}/comment", itemId)
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, booker.getId())
+                .content("{\"text\": \"one more\"}"));
+        perform("GET /items/{itemId}", get("/items/{itemId}", itemId)
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()));
+        perform("GET /items", get("/items")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()))
+                .andExpect(jsonPath("$", hasSize(ITEMS + 1)))
+                .andExpect(jsonPath("$[0].lastBooking.bookerId", equalTo(booker.getId().intValue())))
+                .andExpect(jsonPath("$[0].nextBooking.bookerId", equalTo(booker.getId().intValue())))
+                .andExpect(jsonPath("$[0].comments", hasSize(2)));
+        perform("GET /items/search", get("/items/search")
+                .param("text", "budget")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, booker.getId()));
+        perform("PATCH /items/{itemId}", patch("/items/{itemId}", itemId)
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId())
+                .content("{\"name\": \"renamed\"}"));
+    }
+
+    @Test
+    void bookingEndpointsStayWithinBudget() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
+
+        perform("POST /bookings", post("/bookings")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, booker.getId())
+                .content("{\"itemId\": " + items.get(0).getId() + ", \"start\": \"" + start
+                        + "\", \"end\": \"" + start.plusDays(1) + "\"}"));
+        perform("GET /bookings/{bookingId}", get("/bookings/{bookingId}", futureBooking.getId())
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, booker.getId()));
+        // Список своих бронирований сервер отдаёт только пользователю, у которого есть вещи
+        perform("GET /bookings", get("/bookings")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()));
+        perform("GET /bookings/owner", get("/bookings/owner")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()));
+        perform("PATCH /bookings/{bookingId}", patch("/bookings/{bookingId}", futureBooking.getId())
+                .param("approved", "true")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()));
+    }
+
+    @Test
+    void requestEndpointsStayWithinBudget() throws Exception {
+        perform("POST /requests", post("/requests")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, requester.getId())
+                .content("{\"description\": \"need something\"}"));
+        perform("GET /requests", get("/requests")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, requester.getId()));
+        perform("GET /requests/all", get("/requests/all")
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()))
+                .andExpect(jsonPath("$[?(@.id == " + requests.get(0).getId() + ")].items[0].id",
+                        equalTo(List.of(items.get(0).getId().intValue()))));
+        perform("GET /requests/{requestId}", get("/requests/{requestId}", requests.get(0).getId())
+                .header(ItemController.HEADER_NAME_CONTAINS_OWNER_ID, owner.getId()));
+    }
+
+    private User saveUser(String name) {
+        User user = userRepository.save(new User(null, name, name + "@budget.com", false));
+
+        userIds.add(user.getId());
+        return user;
+    }
+
+    private ResultActions perform(String endpoint, MockHttpServletRequestBuilder request) throws Exception {
+        Integer budget = BUDGETS.get(endpoint);
+
+        assertThat("Для " + endpoint + " не задан бюджет запросов", budget, notNullValue());
+        return QueryBudget.assertAtMost(budget, () -> mockMvc.perform(request
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+// Бюджет запросов к базе для тестов: вызов сервиса или эндпоинта через MockMvc должен выполнить
+// не больше заданного числа SQL-запросов. Считаются запросы текущего потока, поэтому фоновые
+// задачи на результат не влияют. Изменения, которые Hibernate сбросит только при коммите
+// транзакции теста, в вызов не попадают, поэтому бюджеты записи проверяются без @Transactional
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static <T> T assertAtMost(int maxStatements, Callable<T> call) throws Exception {
+        RequestDatabaseMetrics metrics = RequestDatabaseMetrics.start();
+        T result;
+
+        try {
+            result = call.call();
+        } finally {
+            RequestDatabaseMetrics.finish(metrics);
+        }
+
+        assertThat("Число запросов к базе превысило бюджет", metrics.getStatements(),
+                lessThanOrEqualTo(maxStatements));
+        return result;
+    }
+
+    public static void assertAtMost(int maxStatements, Runnable call) throws Exception {
+        assertAtMost(maxStatements, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.migration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Без транзакции теста: мигратор работает через своё соединение и не видит незафиксированных изменений
+@JdbcTest
+@Import(SchemaMigrator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SchemaMigratorTest {
+
+    private final SchemaMigrator schemaMigrator;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_shouldApplyEveryVersionOnce() throws Exception {
+        List<Map<String, Object>> applied = findApplied();
+
+        schemaMigrator.afterPropertiesSet();
+
+        assertEquals(List.of(1, 2, 3, 4), jdbcTemplate.queryForList(
+                "select version from schema_version order by version", Integer.class));
+        assertEquals(applied, findApplied());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class));
+    }
+
+    @Test
+    void migrate_shouldFailWhenAppliedScriptChanged() {
+        Long checksum = jdbcTemplate.queryForObject("select checksum from schema_version where version = 1",
+                Long.class);
+
+        jdbcTemplate.update("update schema_version set checksum = ? where version = 1", checksum + 1);
+
+        try {
+            assertThrows(IllegalStateException.class, schemaMigrator::afterPropertiesSet);
+        } finally {
+            jdbcTemplate.update("update schema_version set checksum = ? where version = 1", checksum);
+        }
+    }
+
+    private List<Map<String, Object>> findApplied() {
+        return jdbcTemplate.queryForList("select version, checksum, installed_on from schema_version order by version");
+    }
+}
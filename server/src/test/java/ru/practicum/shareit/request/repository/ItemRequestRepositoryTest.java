@@ -5,9 +5,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.migration.SchemaMigrator;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utility.EntityCacheConfig;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -15,8 +20,10 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
+@Import({EntityCacheConfig.class, SchemaMigrator.class})
 class ItemRequestRepositoryTest {
 
     private final LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
@@ -46,7 +53,7 @@ class ItemRequestRepositoryTest {
 
     @Test
     void findItemRequestsByRequester_IdOrderByCreatedDesc() {
-        List<ItemRequest> result = itemRequestRepository
+        List<ItemRequestDto> result = itemRequestRepository
                 .findItemRequestsByRequester_IdOrderByCreatedDesc(requester.getId());
 
         assertNotNull(result);
@@ -56,11 +63,15 @@ class ItemRequestRepositoryTest {
     }
 
     @Test
-    void findItemRequestById() {
-        ItemRequest result = itemRequestRepository.findItemRequestById(requestTwo.getId());
-
-        assertNotNull(result);
-        assertEquals(requestTwo.getId(), result.getId());
+    void findOtherUsersItemRequests() {
+        List<ItemRequestDto> own = itemRequestRepository
+                .findOtherUsersItemRequests(requester.getId(), Pageable.unpaged());
+        List<ItemRequestDto> others = itemRequestRepository
+                .findOtherUsersItemRequests(requester.getId() + 1, Pageable.unpaged());
+
+        assertTrue(own.isEmpty());
+        assertEquals(2, others.size());
+        assertTrue(others.get(0).getItems().isEmpty());
     }
 
     private User createUser() {
@@ -2,7 +2,6 @@ package ru.practicum.shareit.request.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -19,13 +18,15 @@ import ru.practicum.shareit.utility.FromSizeRequest;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ItemRequestServiceImplTest {
@@ -79,15 +80,16 @@ class ItemRequestServiceImplTest {
         when(itemRequestRepository.findItemRequestsByRequester_IdOrderByCreatedDesc(userId))
                 .thenReturn(makeItemRequests().stream()
                         .filter(itemRequest -> itemRequest.getRequester().getId().equals(userId))
+                        .map(this::toItemRequestDto)
                         .collect(Collectors.toList())
                 );
 
-        when(itemService.findItemsByRequestId(anyLong()))
+        when(itemService.findItemsByRequestIds(anyCollection()))
                 .thenAnswer(invocationOnMock -> {
-                    Long id = invocationOnMock.getArgument(0);
+                    Collection<Long> ids = invocationOnMock.getArgument(0);
 
                     return makeItems().stream()
-                            .filter(itemDto -> itemDto.getRequestId().equals(id))
+                            .filter(itemDto -> ids.contains(itemDto.getRequestId()))
                             .collect(Collectors.toList());
                 });
 
@@ -97,7 +99,8 @@ class ItemRequestServiceImplTest {
         assertEquals(makeItems().get(3), result.get(0).getItems().get(1));
         assertEquals(makeItems().get(4), result.get(1).getItems().get(0));
         verify(userService, times(1)).findUserById(userId);
-        verify(itemService, atLeastOnce()).findItemsByRequestId(any());
+        verify(itemService, times(1)).findItemsByRequestIds(anyCollection());
+        verify(itemService, never()).findItemsByRequestId(any());
         verify(itemRequestRepository, times(1))
                 .findItemRequestsByRequester_IdOrderByCreatedDesc(userId);
     }
@@ -113,15 +116,17 @@ class ItemRequestServiceImplTest {
                 .filter(itemRequest -> !itemRequest.getRequester().getId().equals(userId))
                 .collect(Collectors.toList());
 
-        when(itemRequestRepository.findAll(pageable))
-                .thenReturn(new PageImpl<>(makeItemRequests()));
+        when(itemRequestRepository.findOtherUsersItemRequests(userId, pageable))
+                .thenReturn(itemRequests.stream()
+                        .map(this::toItemRequestDto)
+                        .collect(Collectors.toList()));
 
-        when(itemService.findItemsByRequestId(anyLong()))
+        when(itemService.findItemsByRequestIds(anyCollection()))
                 .thenAnswer(invocationOnMock -> {
-                    Long id = invocationOnMock.getArgument(0);
+                    Collection<Long> ids = invocationOnMock.getArgument(0);
 
                     return makeItems().stream()
-                            .filter(itemDto -> itemDto.getRequestId().equals(id))
+                            .filter(itemDto -> ids.contains(itemDto.getRequestId()))
                             .collect(Collectors.toList());
                 });
 
@@ -131,8 +136,9 @@ class ItemRequestServiceImplTest {
         for (int i = 0; i < itemRequests.size(); i++) {
             assertEquals(itemRequests.get(i).getId(), allRequests.get(i).getId());
         }
-        verify(itemRequestRepository, times(1)).findAll(any(Pageable.class));
-        verify(itemService, atLeastOnce()).findItemsByRequestId(any(Long.class));
+        verify(itemRequestRepository, times(1)).findOtherUsersItemRequests(eq(userId), any(Pageable.class));
+        verify(itemService, times(1)).findItemsByRequestIds(anyCollection());
+        verify(itemService, never()).findItemsByRequestId(any());
     }
 
     @Test
@@ -184,6 +190,10 @@ class ItemRequestServiceImplTest {
         verify(itemRequestRepository, times(0)).findById(requestId);
     }
 
+    private ItemRequestDto toItemRequestDto(ItemRequest itemRequest) {
+        return new ItemRequestDto(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated());
+    }
+
     private ItemRequestShortDto makeItemRequestShortDto() {
         ItemRequestShortDto itemRequestShortDto = new ItemRequestShortDto();
         itemRequestShortDto.setId(1L);
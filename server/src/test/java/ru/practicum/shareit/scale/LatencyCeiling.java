@@ -0,0 +1,48 @@
+package ru.practicum.shareit.scale;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+// Потолок задержки запроса: после прогрева запрос выполняется RUNS раз в отдельных транзакциях
+// только для чтения, и 90-й перцентиль этих замеров не должен превышать потолок
+@Slf4j
+public final class LatencyCeiling {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int RUNS = 10;
+
+    private LatencyCeiling() {
+    }
+
+    public static <T> T assertWithin(String name, Duration ceiling, TransactionTemplate transactionTemplate,
+                                     Supplier<T> query) {
+        T result = null;
+        long[] nanos = new long[RUNS];
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            transactionTemplate.execute(status -> query.get());
+        }
+
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+
+            result = transactionTemplate.execute(status -> query.get());
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+
+        Duration p90 = Duration.ofNanos(nanos[(int) Math.ceil(RUNS * 0.9) - 1]);
+
+        log.info("{}: p90 {} мс, потолок {} мс", name, p90.toMillis(), ceiling.toMillis());
+        assertThat(name + ": 90-й перцентиль задержки превысил потолок " + ceiling.toMillis() + " мс",
+                p90.toMillis(), lessThanOrEqualTo(ceiling.toMillis()));
+        return result;
+    }
+}
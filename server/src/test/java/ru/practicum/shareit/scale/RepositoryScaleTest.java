@@ -0,0 +1,232 @@
+package ru.practicum.shareit.scale;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utility.FromSizeRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+// Потолки задержки запросов репозиториев на больших объёмах (ScaleDataGenerator): по умолчанию
+// 10 млн бронирований и 1 млн вещей. Запросы выполняются для самых нагруженных владельца,
+// бронирующего, вещи и запроса. Тесты помечены тегом scale и запускаются отдельно: mvn test -Pscale,
+// объёмы задаются системными свойствами, например -Dshareit.scale.bookings=1000000
+@Tag("scale")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+class RepositoryScaleTest {
+
+    private static final Pageable FIRST = FromSizeRequest.of(0, 1);
+    private static final Pageable PAGE = FromSizeRequest.of(0, 20);
+    private static final Pageable DELETION_BATCH = FromSizeRequest.of(0, 500);
+
+    private static final Map<String, Integer> CEILINGS_MS = Map.ofEntries(
+            Map.entry("BookingRepository.findById", 50),
+            Map.entry("BookingRepository.findLastBookings", 100),
+            Map.entry("BookingRepository.findNextBookings", 100),
+            Map.entry("BookingRepository.findOwnerBookingsWithStartIsAfter", 1000),
+            Map.entry("BookingRepository.findUserBookingsWithStartIsAfter", 500),
+            Map.entry("BookingRepository.findCurrentOwnerBookings", 1000),
+            Map.entry("BookingRepository.findCurrentUserBookings", 500),
+            Map.entry("BookingRepository.findOwnerBookingsWithEndIsBefore", 1000),
+            Map.entry("BookingRepository.findUserBookingsWithEndIsBefore", 500),
+            Map.entry("BookingRepository.findOwnerBookingsByState", 1000),
+            Map.entry("BookingRepository.findUserBookingsByState", 500),
+            Map.entry("BookingRepository.findOwnerBookings", 1000),
+            Map.entry("BookingRepository.findUserBookings", 500),
+            Map.entry("BookingRepository.findLastOwnerBooking", 100),
+            Map.entry("BookingRepository.findNextOwnerBooking", 100),
+            Map.entry("BookingRepository.getCountOfUserBookingsWithEndIsBefore", 500),
+            Map.entry("BookingRepository.findBookingIdsByBookerOrItemOwner", 1000),
+            Map.entry("ItemRepository.findById", 50),
+            Map.entry("ItemRepository.findItemsByOwnerIdOrderByIdAsc", 100),
+            // Ответы на запрос не разбиты на страницы: на первые запросы отвечают десятки тысяч вещей
+            Map.entry("ItemRepository.findItemsByRequestId", 500),
+            Map.entry("ItemRepository.findItemsByRequestIdIn", 1000),
+            Map.entry("ItemRepository.findCountOfUserItems", 100),
+            Map.entry("ItemRepository.findItemsByNameOrDescription", 100),
+            Map.entry("ItemRepository.findItemIdsByOwnerId", 100),
+            Map.entry("ItemRepository.findItemIdsByRequesterId", 100),
+            // Комментарии вещи не разбиты на страницы: у популярной вещи их десятки тысяч
+            Map.entry("CommentRepository.findCommentsByItemId", 3000),
+            Map.entry("CommentRepository.findCommentsByItemIdIn", 100),
+            Map.entry("CommentRepository.findCommentIdsByAuthorOrItemOwner", 1000),
+            Map.entry("ItemRequestRepository.findItemRequestsByRequester_IdOrderByCreatedDesc", 100),
+            Map.entry("ItemRequestRepository.findOtherUsersItemRequests", 100),
+            Map.entry("ItemRequestRepository.findItemRequestIdsByRequesterId", 100),
+            Map.entry("UserRepository.findById", 50),
+            Map.entry("UserRepository.findIdsOfDeletedUsers", 500)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private ScaleDataGenerator.ScaleDataset dataset;
+    private List<Long> ownerItemIds;
+    private List<Long> pageWithTopItem;
+    private List<Long> requestIds;
+    private long topItemOwnerId;
+    private long topRequesterId;
+
+    @BeforeAll
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        dataset = new ScaleDataGenerator(jdbcTemplate, ScaleDataGenerator.Sizes.fromSystemProperties(), 42)
+                .generate();
+        ownerItemIds = itemRepository.findItemIdsByOwnerId(dataset.getTopOwnerId(), PAGE);
+        requestIds = LongStream.rangeClosed(1, 20).boxed().collect(Collectors.toList());
+        topItemOwnerId = jdbcTemplate.queryForObject("select owner_id from items where id = ?", Long.class,
+                dataset.getTopItemId());
+        // Страница вещей с самой бронируемой вещью: у неё сотни тысяч бронирований
+        pageWithTopItem = new ArrayList<>(ownerItemIds);
+        pageWithTopItem.add(0, dataset.getTopItemId());
+        topRequesterId = jdbcTemplate.queryForObject("select requester_id from item_requests where id = ?",
+                Long.class, dataset.getTopRequestId());
+    }
+
+    @Test
+    void bookingQueriesShouldStayWithinCeilings() {
+        LocalDateTime now = LocalDateTime.now();
+        long owner = dataset.getTopOwnerId();
+        long booker = dataset.getTopBookerId();
+        long item = dataset.getTopItemId();
+
+        assertAll(
+                () -> assertWithin("BookingRepository.findById", () -> bookingRepository.findById(1L)),
+                () -> assertWithin("BookingRepository.findLastBookings",
+                        () -> bookingRepository.findLastBookings(ownerItemIds, now)),
+                () -> assertWithin("BookingRepository.findNextBookings",
+                        () -> bookingRepository.findNextBookings(ownerItemIds, now)),
+                () -> assertWithin("BookingRepository.findLastBookings",
+                        () -> bookingRepository.findLastBookings(pageWithTopItem, now)),
+                () -> assertWithin("BookingRepository.findNextBookings",
+                        () -> bookingRepository.findNextBookings(pageWithTopItem, now)),
+                () -> assertWithin("BookingRepository.findOwnerBookingsWithStartIsAfter",
+                        () -> bookingRepository.findOwnerBookingsWithStartIsAfter(owner, now, PAGE)),
+                () -> assertWithin("BookingRepository.findUserBookingsWithStartIsAfter",
+                        () -> bookingRepository.findUserBookingsWithStartIsAfter(booker, now, PAGE)),
+                () -> assertWithin("BookingRepository.findCurrentOwnerBookings",
+                        () -> bookingRepository.findCurrentOwnerBookings(owner, now, PAGE)),
+                () -> assertWithin("BookingRepository.findCurrentUserBookings",
+                        () -> bookingRepository.findCurrentUserBookings(booker, now, PAGE)),
+                () -> assertWithin("BookingRepository.findOwnerBookingsWithEndIsBefore",
+                        () -> bookingRepository.findOwnerBookingsWithEndIsBefore(owner, now, PAGE)),
+                () -> assertWithin("BookingRepository.findUserBookingsWithEndIsBefore",
+                        () -> bookingRepository.findUserBookingsWithEndIsBefore(booker, now, PAGE)),
+                () -> assertWithin("BookingRepository.findOwnerBookingsByState",
+                        () -> bookingRepository.findOwnerBookingsByState(owner, BookingStatus.WAITING, PAGE)),
+                () -> assertWithin("BookingRepository.findUserBookingsByState",
+                        () -> bookingRepository.findUserBookingsByState(booker, BookingStatus.WAITING, PAGE)),
+                () -> assertWithin("BookingRepository.findOwnerBookings",
+                        () -> bookingRepository.findOwnerBookings(owner, PAGE)),
+                () -> assertWithin("BookingRepository.findUserBookings",
+                        () -> bookingRepository.findUserBookings(booker, PAGE)),
+                () -> assertWithin("BookingRepository.findLastOwnerBooking",
+                        () -> bookingRepository.findLastOwnerBooking(item, topItemOwnerId, now, FIRST)),
+                () -> assertWithin("BookingRepository.findNextOwnerBooking",
+                        () -> bookingRepository.findNextOwnerBooking(item, topItemOwnerId, now, FIRST)),
+                () -> assertWithin("BookingRepository.getCountOfUserBookingsWithEndIsBefore",
+                        () -> bookingRepository.getCountOfUserBookingsWithEndIsBefore(booker, now)),
+                () -> assertWithin("BookingRepository.findBookingIdsByBookerOrItemOwner",
+                        () -> bookingRepository.findBookingIdsByBookerOrItemOwner(owner, DELETION_BATCH)));
+    }
+
+    @Test
+    void itemQueriesShouldStayWithinCeilings() {
+        long owner = dataset.getTopOwnerId();
+
+        assertAll(
+                () -> assertWithin("ItemRepository.findById", () -> itemRepository.findById(dataset.getTopItemId())),
+                () -> assertWithin("ItemRepository.findItemsByOwnerIdOrderByIdAsc",
+                        () -> itemRepository.findItemsByOwnerIdOrderByIdAsc(owner, PAGE)),
+                () -> assertWithin("ItemRepository.findItemsByRequestId",
+                        () -> itemRepository.findItemsByRequestId(dataset.getTopRequestId())),
+                () -> assertWithin("ItemRepository.findItemsByRequestIdIn",
+                        () -> itemRepository.findItemsByRequestIdIn(requestIds)),
+                () -> assertWithin("ItemRepository.findCountOfUserItems",
+                        () -> itemRepository.findCountOfUserItems(owner)),
+                () -> assertWithin("ItemRepository.findItemsByNameOrDescription",
+                        () -> itemRepository.findItemsByNameOrDescription("drill", PAGE)),
+                () -> assertWithin("ItemRepository.findItemIdsByOwnerId",
+                        () -> itemRepository.findItemIdsByOwnerId(owner, PAGE)),
+                () -> assertWithin("ItemRepository.findItemIdsByRequesterId",
+                        () -> itemRepository.findItemIdsByRequesterId(topRequesterId, DELETION_BATCH)));
+    }
+
+    @Test
+    void commentQueriesShouldStayWithinCeilings() {
+        long owner = dataset.getTopOwnerId();
+
+        assertAll(
+                () -> assertWithin("CommentRepository.findCommentsByItemId",
+                        () -> commentRepository.findCommentsByItemId(dataset.getTopItemId())),
+                () -> assertWithin("CommentRepository.findCommentsByItemIdIn",
+                        () -> commentRepository.findCommentsByItemIdIn(ownerItemIds)),
+                () -> assertWithin("CommentRepository.findCommentIdsByAuthorOrItemOwner",
+                        () -> commentRepository.findCommentIdsByAuthorOrItemOwner(owner, DELETION_BATCH)));
+    }
+
+    @Test
+    void requestAndUserQueriesShouldStayWithinCeilings() {
+        assertAll(
+                () -> assertWithin("ItemRequestRepository.findItemRequestsByRequester_IdOrderByCreatedDesc",
+                        () -> itemRequestRepository.findItemRequestsByRequester_IdOrderByCreatedDesc(topRequesterId)),
+                () -> assertWithin("ItemRequestRepository.findOtherUsersItemRequests",
+                        () -> itemRequestRepository.findOtherUsersItemRequests(topRequesterId, PAGE)),
+                () -> assertWithin("ItemRequestRepository.findItemRequestIdsByRequesterId",
+                        () -> itemRequestRepository.findItemRequestIdsByRequesterId(topRequesterId, DELETION_BATCH)),
+                () -> assertWithin("UserRepository.findById", () -> userRepository.findById(dataset.getTopBookerId())),
+                () -> assertWithin("UserRepository.findIdsOfDeletedUsers", userRepository::findIdsOfDeletedUsers));
+    }
+
+    // Данные самых нагруженных участников действительно есть: иначе потолки проверялись бы на пустых выборках
+    @Test
+    void shouldMeasureQueriesOnNonEmptyResults() {
+        assertThat(ownerItemIds, not(empty()));
+        assertThat(bookingRepository.findUserBookings(dataset.getTopBookerId(), PAGE), not(empty()));
+        assertThat(bookingRepository.findOwnerBookings(dataset.getTopOwnerId(), PAGE), not(empty()));
+        assertThat(itemRepository.findItemsByRequestId(dataset.getTopRequestId()), not(empty()));
+        assertThat(commentRepository.findCommentsByItemId(dataset.getTopItemId()), not(empty()));
+        assertThat(bookingRepository.findLastBookings(pageWithTopItem, LocalDateTime.now()),
+                hasSize(lessThanOrEqualTo(pageWithTopItem.size())));
+    }
+
+    private <T> void assertWithin(String query, Supplier<T> call) {
+        LatencyCeiling.assertWithin(query, Duration.ofMillis(CEILINGS_MS.get(query)), transactionTemplate, call);
+    }
+}
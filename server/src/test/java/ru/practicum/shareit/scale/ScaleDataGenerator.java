@@ -0,0 +1,205 @@
+package ru.practicum.shareit.scale;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Заполнение базы большим объёмом данных пакетными вставками через JDBC, в обход JPA.
+// Распределения близки к реальным:
+// - владельцы выбираются по Ципфу: у первых владельцев тысячи вещей, у большинства единицы;
+// - популярность вещей по Ципфу: малая часть вещей собирает большую часть бронирований и комментариев;
+// - бронирующие по Ципфу: у самых активных длинная история бронирований;
+// - на запросы отвечает часть вещей, запрос выбирается по Ципфу, так что на первые запросы много ответов.
+// Идентификаторы задаются явно, после загрузки счётчики IDENTITY переставляются за последний id.
+// Для Postgres стоит добавить к адресу базы reWriteBatchedInserts=true
+@Slf4j
+public class ScaleDataGenerator {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final List<String> WORDS = List.of("drill", "ladder", "tent", "bike", "camera", "projector",
+            "saw", "kayak", "guitar", "mixer", "tripod", "scooter", "grill", "stroller", "snowboard", "printer");
+    private static final String[] STATUSES = {"APPROVED", "APPROVED", "APPROVED", "APPROVED", "APPROVED",
+            "APPROVED", "APPROVED", "WAITING", "REJECTED", "CANCELED"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Sizes sizes;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public ScaleDataGenerator(JdbcTemplate jdbcTemplate, Sizes sizes, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sizes = sizes;
+        this.random = new Random(seed);
+    }
+
+    public ScaleDataset generate() {
+        int owners = Math.max(1, sizes.getUsers() / 10);
+        ZipfDistribution ownerRanks = new ZipfDistribution(owners, 1.0);
+        ZipfDistribution itemRanks = new ZipfDistribution(sizes.getItems(), 1.0);
+        ZipfDistribution bookerRanks = new ZipfDistribution(sizes.getUsers(), 0.8);
+        ZipfDistribution requestRanks = new ZipfDistribution(sizes.getRequests(), 1.1);
+        // Ранги популярности перемешаны, чтобы популярные вещи и активные пользователи не шли подряд по id
+        int[] itemIds = shuffledIds(sizes.getItems());
+        int[] bookerIds = shuffledIds(sizes.getUsers());
+        long started = System.nanoTime();
+
+        insertUsers();
+        insertRequests();
+        insertItems(ownerRanks, requestRanks);
+        insertBookings(itemRanks, itemIds, bookerRanks, bookerIds);
+        insertComments(itemRanks, itemIds, bookerRanks, bookerIds);
+        restartIdentity("users", sizes.getUsers());
+        restartIdentity("item_requests", sizes.getRequests());
+        restartIdentity("items", sizes.getItems());
+        restartIdentity("bookings", sizes.getBookings());
+        restartIdentity("comments", sizes.getComments());
+        jdbcTemplate.execute("ANALYZE");
+        log.info("Сгенерировано {} за {} с", sizes, (System.nanoTime() - started) / 1_000_000_000);
+
+        return new ScaleDataset(1L, bookerIds[0], itemIds[0], 1L, sizes);
+    }
+
+    private void insertUsers() {
+        insert("insert into users (id, name, email, deleted) values (?, ?, ?, false)", sizes.getUsers(),
+                id -> new Object[]{id, "user " + id, "user" + id + "@scale.test"});
+    }
+
+    private void insertRequests() {
+        insert("insert into item_requests (id, description, requester_id, created) values (?, ?, ?, ?)",
+                sizes.getRequests(), id -> new Object[]{id, "Need a " + word() + " for the weekend",
+                        1 + random.nextInt(sizes.getUsers()), past(730)});
+    }
+
+    // Вещь принадлежит владельцу с рангом по Ципфу, треть вещей отвечает на запросы
+    private void insertItems(ZipfDistribution ownerRanks, ZipfDistribution requestRanks) {
+        insert("insert into items (id, name, description, available, owner_id, request_id) "
+                + "values (?, ?, ?, ?, ?, ?)", sizes.getItems(), id -> {
+                    String word = word();
+                    Integer requestId = random.nextInt(3) == 0 ? 1 + requestRanks.sample(random) : null;
+
+                    return new Object[]{id, word + " " + id, "A " + word + " in good condition, " + word(),
+                            random.nextInt(10) != 0, 1 + ownerRanks.sample(random), requestId};
+                });
+    }
+
+    // Бронирования за последние три года и на три месяца вперёд длительностью от дня до двух недель
+    private void insertBookings(ZipfDistribution itemRanks, int[] itemIds, ZipfDistribution bookerRanks,
+                                int[] bookerIds) {
+        long pastMinutes = ChronoUnit.MINUTES.between(now.minusYears(3), now);
+        long futureMinutes = ChronoUnit.MINUTES.between(now, now.plusMonths(3));
+
+        insert("insert into bookings (id, start_date_time, end_date_time, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?, ?)", sizes.getBookings(), id -> {
+                    LocalDateTime start = now.plusMinutes((long) (random.nextDouble() * (pastMinutes + futureMinutes))
+                            - pastMinutes);
+                    LocalDateTime end = start.plusDays(1 + random.nextInt(14));
+
+                    return new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(end),
+                            itemIds[itemRanks.sample(random)], bookerIds[bookerRanks.sample(random)],
+                            STATUSES[random.nextInt(STATUSES.length)]};
+                });
+    }
+
+    private void insertComments(ZipfDistribution itemRanks, int[] itemIds, ZipfDistribution bookerRanks,
+                                int[] bookerIds) {
+        insert("insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                sizes.getComments(), id -> new Object[]{id, "Great " + word() + ", would rent again",
+                        itemIds[itemRanks.sample(random)], bookerIds[bookerRanks.sample(random)], past(1095)});
+    }
+
+    private void insert(String sql, int count, RowFactory rowFactory) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (long id = 1; id <= count; id++) {
+            batch.add(rowFactory.create(id));
+
+            if (batch.size() == BATCH_SIZE || id == count) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void restartIdentity(String table, int lastId) {
+        jdbcTemplate.execute("alter table " + table + " alter column id restart with " + (lastId + 1));
+    }
+
+    private int[] shuffledIds(int count) {
+        int[] ids = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+        }
+
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int id = ids[i];
+
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+        return ids;
+    }
+
+    private String word() {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private Timestamp past(int maxDays) {
+        return Timestamp.valueOf(now.minusMinutes(random.nextInt(maxDays * 24 * 60)));
+    }
+
+    private interface RowFactory {
+
+        Object[] create(long id);
+    }
+
+    // Объёмы таблиц. По умолчанию 10 млн бронирований и 1 млн вещей, задаются системными свойствами
+    // shareit.scale.users, .items, .bookings, .requests, .comments
+    @Getter
+    @AllArgsConstructor
+    public static class Sizes {
+
+        private final int users;
+        private final int items;
+        private final int bookings;
+        private final int requests;
+        private final int comments;
+
+        public static Sizes fromSystemProperties() {
+            return new Sizes(
+                    Integer.getInteger("shareit.scale.users", 100_000),
+                    Integer.getInteger("shareit.scale.items", 1_000_000),
+                    Integer.getInteger("shareit.scale.bookings", 10_000_000),
+                    Integer.getInteger("shareit.scale.requests", 100_000),
+                    Integer.getInteger("shareit.scale.comments", 1_000_000));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d пользователей, %d вещей, %d бронирований, %d запросов, %d комментариев",
+                    users, items, bookings, requests, comments);
+        }
+    }
+
+    // Самые нагруженные участники: владелец с наибольшим числом вещей, бронирующий с самой длинной историей,
+    // самая популярная вещь и запрос с наибольшим числом ответов
+    @Getter
+    @AllArgsConstructor
+    public static class ScaleDataset {
+
+        private final long topOwnerId;
+        private final long topBookerId;
+        private final long topItemId;
+        private final long topRequestId;
+        private final Sizes sizes;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.scale;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Распределение Ципфа на рангах 0..n-1: вероятность ранга k пропорциональна 1 / (k + 1)^exponent.
+// Ранги выбираются двоичным поиском по накопленным вероятностям
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        cumulative = new double[n];
+
+        double sum = 0;
+
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
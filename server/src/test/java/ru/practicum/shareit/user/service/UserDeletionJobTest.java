@@ -0,0 +1,203 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Без общей транзакции теста: каждая порция удаления фиксируется сама, поэтому данные создаются
+// и удаляются в отдельных транзакциях, а проверки видят только зафиксированные изменения
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = {
+        "shareit.user-deletion.batch-size=1",
+        "shareit.user-deletion.max-batches-per-run=5"
+})
+class UserDeletionJobTest {
+
+    private final EntityManager em;
+    private final UserService userService;
+    private final UserDeletionJob userDeletionJob;
+    private final UserDeletionService userDeletionService;
+    private final TransactionTemplate transactionTemplate;
+    private final LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private User userToDelete;
+    private User otherUser;
+    private Item otherItem;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userToDelete = makeUser("userToDelete", "userToDelete@email.com");
+            otherUser = makeUser("otherUser", "otherUser@email.com");
+
+            ItemRequest request = makeRequest(userToDelete);
+            Item ownItem = makeItem("ownItem", userToDelete, null);
+            otherItem = makeItem("otherItem", otherUser, request);
+
+            makeBooking(ownItem, otherUser);
+            makeBooking(ownItem, otherUser);
+            makeBooking(otherItem, userToDelete);
+            makeComment(ownItem, otherUser);
+            makeComment(otherItem, userToDelete);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> users = List.of(userToDelete.getId(), otherUser.getId());
+        String itemsOfUsers = "(select i.id from Item i where i.owner.id in :users)";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            execute("delete from Comment c where c.author.id in :users or c.item.id in " + itemsOfUsers, users);
+            execute("delete from Booking b where b.booker.id in :users or b.item.id in " + itemsOfUsers, users);
+            execute("delete from Item i where i.owner.id in :users", users);
+            execute("delete from ItemRequest r where r.requester.id in :users", users);
+            execute("delete from User u where u.id in :users", users);
+        });
+    }
+
+    @Test
+    void shouldDeleteUserDataInBatches() {
+        userService.deleteUser(userToDelete.getId());
+
+        // Первый запуск успевает 5 порций: 2 комментария, пустую порцию комментариев и 2 бронирования
+        userDeletionJob.deleteMarkedUsers();
+
+        assertThat(count("select count(c) from Comment c"), equalTo(0L));
+        assertThat(count("select count(b) from Booking b"), equalTo(1L));
+        assertThat(count("select count(u) from User u"), equalTo(2L));
+        assertThat(userDeletionJob.findProgress(), hasItem(allOf(
+                hasProperty("userId", equalTo(userToDelete.getId())),
+                hasProperty("stage", equalTo("BOOKINGS")),
+                hasProperty("finished", equalTo(false))
+        )));
+
+        runUntilMarkedUsersAreDeleted();
+
+        assertThat(count("select count(c) from Comment c"), equalTo(0L));
+        assertThat(count("select count(b) from Booking b"), equalTo(0L));
+        assertThat(count("select count(r) from ItemRequest r"), equalTo(0L));
+        assertThat(count("select count(i) from Item i"), equalTo(1L));
+        assertThat(count("select count(u) from User u"), equalTo(1L));
+        assertNull(em.find(Item.class, otherItem.getId()).getRequest());
+        assertThat(userDeletionJob.findProgress(), hasItem(allOf(
+                hasProperty("userId", equalTo(userToDelete.getId())),
+                hasProperty("deletedComments", equalTo(2L)),
+                hasProperty("deletedBookings", equalTo(3L)),
+                hasProperty("detachedAnswers", equalTo(1L)),
+                hasProperty("deletedItems", equalTo(1L)),
+                hasProperty("deletedRequests", equalTo(1L)),
+                hasProperty("finished", equalTo(true))
+        )));
+    }
+
+    // Порция фиксируется сразу, поэтому после сбоя задача продолжает с оставшихся строк
+    @Test
+    void shouldCommitEachBatchAndResumeFromRemainingRows() {
+        userService.deleteUser(userToDelete.getId());
+
+        assertThat(userDeletionService.deleteComments(userToDelete.getId()), equalTo(1));
+        assertThat(count("select count(c) from Comment c"), equalTo(1L));
+
+        runUntilMarkedUsersAreDeleted();
+
+        assertThat(count("select count(c) from Comment c"), equalTo(0L));
+        assertThat(count("select count(u) from User u"), equalTo(1L));
+        assertThat(userDeletionJob.findProgress(), hasItem(allOf(
+                hasProperty("userId", equalTo(userToDelete.getId())),
+                hasProperty("deletedComments", equalTo(1L)),
+                hasProperty("finished", equalTo(true))
+        )));
+    }
+
+    @Test
+    void shouldNotTouchUsersWhichAreNotMarkedAsDeleted() {
+        userDeletionJob.deleteMarkedUsers();
+
+        assertThat(count("select count(u) from User u"), equalTo(2L));
+        assertThat(count("select count(b) from Booking b"), equalTo(3L));
+        assertThat(userDeletionJob.findProgress(), not(hasItem(
+                hasProperty("userId", equalTo(userToDelete.getId()))
+        )));
+    }
+
+    private void runUntilMarkedUsersAreDeleted() {
+        for (int run = 0; run < 10 && !userDeletionService.findUsersToDelete().isEmpty(); run++) {
+            userDeletionJob.deleteMarkedUsers();
+        }
+    }
+
+    private Long count(String query) {
+        return em.createQuery(query, Long.class).getSingleResult();
+    }
+
+    private void execute(String query, List<Long> users) {
+        em.createQuery(query).setParameter("users", users).executeUpdate();
+    }
+
+    private User makeUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        em.persist(user);
+        return user;
+    }
+
+    private ItemRequest makeRequest(User requester) {
+        ItemRequest request = new ItemRequest();
+        request.setDescription("request description");
+        request.setRequester(requester);
+        request.setCreated(date);
+        em.persist(request);
+        return request;
+    }
+
+    private Item makeItem(String name, User owner, ItemRequest request) {
+        Item item = Item.builder()
+                .name(name)
+                .description(name + " description")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build();
+        em.persist(item);
+        return item;
+    }
+
+    private void makeBooking(Item item, User booker) {
+        em.persist(Booking.builder()
+                .start(date.minusDays(2L))
+                .end(date.minusDays(1L))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+
+    private void makeComment(Item item, User author) {
+        em.persist(Comment.builder()
+                .text("comment")
+                .item(item)
+                .author(author)
+                .created(date)
+                .build());
+    }
+}
@@ -183,14 +183,26 @@ class UserServiceImplTest {
         User userToDelete = queryToGetUser.setParameter("email", sourceUsers.get(0).getEmail()).getSingleResult();
         userService.deleteUser(userToDelete.getId());
 
-        TypedQuery<User> queryToGetAllUsers = em.createQuery("select u from User u", User.class);
-        List<User> targetUsers = queryToGetAllUsers.getResultList();
+        List<UserDto> targetUsers = userService.findAllUsers();
 
         assertThat(targetUsers, hasSize(sourceUsers.size() - 1));
-        assertThat(sourceUsers, not(hasItem(allOf(
-                hasProperty("name", equalTo(userToDelete.getName())),
-                hasProperty("description", equalTo(userToDelete.getEmail()))
-        ))));
+        assertThat(targetUsers, not(hasItem(hasProperty("id", equalTo(userToDelete.getId())))));
+        assertTrue(em.find(User.class, userToDelete.getId()).isDeleted());
+        assertThrows(EntityNotFoundException.class, () -> userService.findUserById(userToDelete.getId()));
+    }
+
+    @Test
+    void shouldRegisterEmailOfDeletedUserAgain() {
+        UserDto deletedUser = userService.createUser(userDtoOne);
+
+        userService.deleteUser(deletedUser.getId());
+        em.flush();
+
+        UserDto newUser = userService.createUser(makeUserDto("user003", userDtoOne.getEmail()));
+        em.flush();
+
+        assertThat(newUser.getId(), not(equalTo(deletedUser.getId())));
+        assertThat(userService.findAllUsers(), hasItem(hasProperty("email", equalTo(userDtoOne.getEmail()))));
     }
 
     @Test
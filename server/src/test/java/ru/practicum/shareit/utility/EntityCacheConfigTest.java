@@ -0,0 +1,76 @@
+package ru.practicum.shareit.utility;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Без @Transactional: в кэш второго уровня попадают только закоммиченные сущности
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class EntityCacheConfigTest {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private Statistics statistics;
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userService.createUser(new UserDto(null, "cached", "cached@email.com"));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findById(user.getId()).ifPresent(userRepository::delete);
+    }
+
+    // Сущность с IDENTITY-ключом попадает в кэш при первом чтении, а не при вставке
+    @Test
+    void shouldFindUserByIdWithoutQueryingDatabase() {
+        userService.findUserById(user.getId());
+        statistics.clear();
+
+        userService.findUserById(user.getId());
+        UserDto result = userService.findUserById(user.getId());
+
+        assertThat(result.getName(), equalTo(user.getName()));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount(), equalTo(2L));
+    }
+
+    @Test
+    void shouldReturnUpdatedUserFromCache() {
+        userService.updateUser(new UserDto(user.getId(), "renamed", null));
+        statistics.clear();
+
+        UserDto result = userService.findUserById(user.getId());
+
+        assertThat(result.getName(), equalTo("renamed"));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+    }
+
+    @Test
+    void shouldNotFindDeletedUserInCache() {
+        userService.deleteUser(user.getId());
+
+        assertThrows(EntityNotFoundException.class, () -> userService.findUserById(user.getId()));
+    }
+}
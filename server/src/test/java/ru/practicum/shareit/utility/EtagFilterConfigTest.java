@@ -0,0 +1,48 @@
+package ru.practicum.shareit.utility;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EtagFilterConfigTest {
+
+    private final ShallowEtagHeaderFilter filter = new EtagFilterConfig().etagFilter().getFilter();
+
+    @Test
+    void etagFilter_shouldTagEntityById() throws ServletException, IOException {
+        assertNotNull(eTag("GET", "/items/1"));
+        assertNotNull(eTag("GET", "/users/15"));
+    }
+
+    @Test
+    void etagFilter_shouldNotBufferListsSearchAndWrites() throws ServletException, IOException {
+        assertNull(eTag("GET", "/items"));
+        assertNull(eTag("GET", "/items/search"));
+        assertNull(eTag("GET", "/requests/all"));
+        assertNull(eTag("PATCH", "/items/1"));
+    }
+
+    private String eTag(String method, String path) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest(method, path), response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.getWriter().write("{\"id\":1}");
+            }
+        }));
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+}
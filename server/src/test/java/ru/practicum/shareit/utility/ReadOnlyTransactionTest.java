@@ -0,0 +1,50 @@
+package ru.practicum.shareit.utility;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// Сервисы читают данные в транзакциях @Transactional(readOnly = true): сессия Hibernate в них
+// не хранит снимки загруженных сущностей и не сбрасывает изменения перед запросами
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ReadOnlyTransactionTest {
+
+    private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldUseReadOnlySessionWithManualFlushInReadOnlyTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = em.unwrap(Session.class);
+
+            assertThat(session.isDefaultReadOnly(), equalTo(true));
+            assertThat(session.getHibernateFlushMode(), equalTo(FlushMode.MANUAL));
+        });
+    }
+
+    @Test
+    void shouldUseWritableSessionWithAutoFlushInReadWriteTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = em.unwrap(Session.class);
+
+            assertThat(session.isDefaultReadOnly(), equalTo(false));
+            assertThat(session.getHibernateFlushMode(), equalTo(FlushMode.AUTO));
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.utility;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@JsonTest
+@Import(SmileConverterConfig.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SmileConverterConfigTest {
+
+    private static final int LIST_SIZE = 100;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void shouldEncodeItemInfoDtoListInSmileSmallerThanInJson() throws Exception {
+        List<ItemInfoDto> items = makeItems();
+        ObjectMapper smileMapper = smileConverter.getObjectMapper();
+
+        byte[] json = objectMapper.writeValueAsBytes(items);
+        byte[] smile = smileMapper.writeValueAsBytes(items);
+
+        assertThat(smile.length, lessThan(json.length));
+        assertThat(smileMapper.readValue(smile, new TypeReference<List<ItemInfoDto>>() {}), equalTo(items));
+    }
+
+    @Test
+    void shouldEncodeBookingInfoDtoListInSmileSmallerThanInJson() throws Exception {
+        List<BookingInfoDto> bookings = makeBookings();
+        ObjectMapper smileMapper = smileConverter.getObjectMapper();
+
+        byte[] json = objectMapper.writeValueAsBytes(bookings);
+        byte[] smile = smileMapper.writeValueAsBytes(bookings);
+
+        assertThat(smile.length, lessThan(json.length));
+        assertThat(smileMapper.readValue(smile, new TypeReference<List<BookingInfoDto>>() {}), equalTo(bookings));
+    }
+
+    @Test
+    void shouldWriteDatesAsIsoStringsLikeJson() throws Exception {
+        List<BookingInfoDto> bookings = makeBookings().subList(0, 1);
+
+        String start = smileConverter.getObjectMapper()
+                .readTree(smileConverter.getObjectMapper().writeValueAsBytes(bookings))
+                .get(0).get("start").asText();
+
+        assertThat(start, equalTo("2030-01-02T10:00:00"));
+    }
+
+    private List<ItemInfoDto> makeItems() {
+        List<ItemInfoDto> items = new ArrayList<>();
+
+        for (long i = 1; i <= LIST_SIZE; i++) {
+            items.add(ItemInfoDto.builder()
+                    .id(i)
+                    .name("item" + i)
+                    .description("description of item" + i)
+                    .available(true)
+                    .lastBooking(new ItemInfoDto.BookingForItemDto(i, START.minusDays(2), START.minusDays(1), i + 1))
+                    .nextBooking(new ItemInfoDto.BookingForItemDto(i + 1, START, START.plusDays(1), i + 2))
+                    .comments(List.of(new CommentDto(i, "comment" + i, "author" + i, START.minusDays(1))))
+                    .build());
+        }
+        return items;
+    }
+
+    private List<BookingInfoDto> makeBookings() {
+        List<BookingInfoDto> bookings = new ArrayList<>();
+
+        for (long i = 1; i <= LIST_SIZE; i++) {
+            bookings.add(BookingInfoDto.builder()
+                    .id(i)
+                    .start(START.plusDays(i))
+                    .end(START.plusDays(i + 1))
+                    .status(BookingStatus.WAITING)
+                    .booker(new BookingInfoDto.UserForBookingInfoDto(i))
+                    .item(new BookingInfoDto.ItemForBookingInfoDto(i, "item" + i))
+                    .build());
+        }
+        return bookings;
+    }
+}